@@ -0,0 +1,76 @@
+package com.aura.reviews.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.aura.reviews.AuraReviewsApplication;
+import com.aura.reviews.service.IndiceBusquedaClientes;
+import com.aura.reviews.service.IndiceBusquedaReviews;
+import com.aura.reviews.service.ReconciliadorEstadisticas;
+import com.aura.reviews.service.RellenoFranjaEdad;
+
+// Contexto Spring con H2 en memoria y 'filas' clientes, cada uno con su review.
+// Los datos se generan en SQL (SYSTEM_RANGE de H2) y después se cargan los índices de
+// búsqueda y las estadísticas en memoria, como en un arranque con la BD ya poblada
+@State(Scope.Benchmark)
+public class AplicacionConDatos {
+
+    @Param({"10000", "100000", "1000000"})
+    public int filas;
+
+    public ConfigurableApplicationContext contexto;
+
+    private static final String INSERTAR_CLIENTES =
+            "INSERT INTO clientes (nombre, edad, genero, intolerancia, detalle_intolerancia, version) " +
+            "SELECT CONCAT(ARRAY_GET(ARRAY['María', 'Jorge', 'Lucía', 'Pablo', 'Marta', 'Andrés'], MOD(X, 6) + 1), " +
+            "              ' ', ARRAY_GET(ARRAY['García', 'López', 'Marín', 'Sanz', 'Ruiz'], MOD(X, 5) + 1), ' ', X), " +
+            "       15 + MOD(X, 60), " +
+            "       CASE MOD(X, 3) WHEN 0 THEN 'Femenino' WHEN 1 THEN 'Masculino' ELSE 'Otro' END, " +
+            "       MOD(X, 4) = 0, " +
+            "       CASE WHEN MOD(X, 4) = 0 THEN 'Gluten' END, 0 " +
+            "FROM SYSTEM_RANGE(1, ?)";
+
+    private static final String INSERTAR_REVIEWS =
+            "INSERT INTO reviews (descripcion, valoracion, cliente_id, version) " +
+            "SELECT CONCAT(ARRAY_GET(ARRAY['Paella excelente', 'Servicio lento', 'Postres caseros muy ricos', " +
+            "                              'Precio algo caro', 'Sin opciones sin gluten'], MOD(c.id, 5) + 1), " +
+            "              ', visita ', c.id), " +
+            "       1 + MOD(c.id, 5), c.id, 0 " +
+            "FROM clientes c";
+
+    @Setup(Level.Trial)
+    public void arrancar() {
+        contexto = new SpringApplicationBuilder(AuraReviewsApplication.class)
+                .profiles("test")
+                .run("--spring.main.web-application-type=none",
+                        "--spring.main.banner-mode=off",
+                        "--spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+
+        JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        jdbcTemplate.update(INSERTAR_CLIENTES, filas);
+        jdbcTemplate.update(INSERTAR_REVIEWS);
+        contexto.getBean(RellenoFranjaEdad.class).rellenar();
+
+        contexto.getBean(IndiceBusquedaClientes.class).cargar();
+        contexto.getBean(IndiceBusquedaReviews.class).cargar();
+        contexto.getBean(ReconciliadorEstadisticas.class).inicializar();
+    }
+
+    @TearDown(Level.Trial)
+    public void parar() {
+        contexto.close();
+    }
+
+    public <T> T bean(Class<T> tipo) {
+        return contexto.getBean(tipo);
+    }
+}
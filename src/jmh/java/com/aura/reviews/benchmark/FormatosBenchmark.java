@@ -0,0 +1,114 @@
+package com.aura.reviews.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.aura.reviews.dto.ReviewResumen;
+import com.aura.reviews.entity.Cliente;
+import com.aura.reviews.entity.Review;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+// Una página de GET /api/reviews (20 reviews con su cliente, o 20 resúmenes con ?view=summary)
+// en cada formato negociable, con y sin gzip (nivel por defecto, como Tomcat). Los bytes por
+// review de cada combinación se imprimen al preparar el trial, en la salida de JMH
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatosBenchmark {
+
+    private static final int TAMANO_PAGINA = 20;
+    private static final String[] DESCRIPCIONES = {
+        "Paella excelente y servicio rápido, volveremos con la familia",
+        "Servicio lento pero la comida compensa la espera",
+        "Postres caseros muy ricos; el flan es de los mejores que he probado",
+        "Precio algo caro para las raciones que ponen",
+        "Sin opciones sin gluten en la carta, aunque el personal se esforzó en adaptar un plato"
+    };
+
+    @Param({"json", "cbor", "smile"})
+    public String formato;
+
+    @Param({"completa", "resumen"})
+    public String vista;
+
+    private ObjectMapper mapper;
+    private List<?> pagina;
+
+    @Setup
+    public void preparar() throws IOException {
+        mapper = switch (formato) {
+            case "cbor" -> CBORMapper.builder().findAndAddModules().build();
+            case "smile" -> SmileMapper.builder().findAndAddModules().build();
+            default -> JsonMapper.builder().findAndAddModules().build();
+        };
+        List<Review> reviews = reviews();
+        pagina = "resumen".equals(vista)
+                ? reviews.stream().map(FormatosBenchmark::resumen).toList()
+                : reviews;
+
+        byte[] codificada = mapper.writeValueAsBytes(pagina);
+        System.out.printf("%n%s/%s: %d bytes por review, %d con gzip%n", formato, vista,
+                codificada.length / TAMANO_PAGINA, comprimir(codificada).length / TAMANO_PAGINA);
+    }
+
+    @Benchmark
+    public byte[] codificar() {
+        return mapper.writeValueAsBytes(pagina);
+    }
+
+    @Benchmark
+    public byte[] codificarYComprimir() throws IOException {
+        return comprimir(mapper.writeValueAsBytes(pagina));
+    }
+
+    private static byte[] comprimir(byte[] datos) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(datos.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(datos);
+        }
+        return salida.toByteArray();
+    }
+
+    private static List<Review> reviews() {
+        List<Review> reviews = new ArrayList<>(TAMANO_PAGINA);
+        for (int i = 0; i < TAMANO_PAGINA; i++) {
+            boolean intolerancia = i % 4 == 0;
+            Cliente cliente = new Cliente("Cliente " + (4200 + i), 18 + i * 3 % 60,
+                    i % 2 == 0 ? "Femenino" : "Masculino", intolerancia, intolerancia ? "Gluten" : null);
+            cliente.setId(4200L + i);
+            Review review = new Review(DESCRIPCIONES[i % DESCRIPCIONES.length] + ", visita " + i, 1 + i % 5, cliente);
+            review.setId(9800L + i);
+            cliente.setReview(review);
+            reviews.add(review);
+        }
+        return reviews;
+    }
+
+    private static ReviewResumen resumen(Review review) {
+        return new ReviewResumen(review.getId(), review.getValoracion(), review.getDescripcion(),
+                review.getCliente().getNombre());
+    }
+}
@@ -0,0 +1,61 @@
+package com.aura.reviews.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.aura.reviews.entity.Cliente;
+import com.aura.reviews.entity.Review;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+// Serialización JSON de las entidades tal como las devuelve la API REST (sin BD)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacionBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Cliente cliente;
+    private Review review;
+    private byte[] reviewJson;
+
+    @Setup
+    public void preparar() {
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+        cliente = new Cliente("Lucía Marín", 34, "Femenino", true, "Gluten");
+        cliente.setId(4211L);
+        review = new Review("Paella excelente y servicio rápido, volveremos con la familia", 5, cliente);
+        review.setId(9876L);
+        cliente.setReview(review);
+        reviewJson = objectMapper.writeValueAsBytes(review);
+    }
+
+    @Benchmark
+    public byte[] serializarCliente() {
+        return objectMapper.writeValueAsBytes(cliente);
+    }
+
+    @Benchmark
+    public byte[] serializarReview() {
+        return objectMapper.writeValueAsBytes(review);
+    }
+
+    @Benchmark
+    public Review deserializarReview() {
+        return objectMapper.readValue(reviewJson, Review.class);
+    }
+}
@@ -0,0 +1,80 @@
+package com.aura.reviews.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import com.aura.reviews.dto.EstadisticasClientes;
+import com.aura.reviews.entity.Cliente;
+import com.aura.reviews.entity.Review;
+import com.aura.reviews.service.ClienteService;
+import com.aura.reviews.service.InformeService;
+import com.aura.reviews.service.ReviewService;
+
+// Rutas calientes de servicios: panel de informes, búsquedas y conteos.
+// Los métodos *EnBd miden la consulta SQL; los demás, el camino que usa la web
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ServiciosBenchmark {
+
+    private static final Pageable PRIMERA_PAGINA = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id"));
+
+    private ReviewService reviewService;
+    private ClienteService clienteService;
+    private InformeService informeService;
+
+    @Setup
+    public void preparar(AplicacionConDatos aplicacion) {
+        reviewService = aplicacion.bean(ReviewService.class);
+        clienteService = aplicacion.bean(ClienteService.class);
+        informeService = aplicacion.bean(InformeService.class);
+    }
+
+    @Benchmark
+    public Map<Integer, Long> contarPorValoracion() {
+        return reviewService.contarPorValoracion();
+    }
+
+    @Benchmark
+    public Map<Integer, Long> contarPorValoracionEnBd() {
+        return reviewService.contarPorValoracionEnBd();
+    }
+
+    @Benchmark
+    public EstadisticasClientes estadisticasClientes() {
+        return informeService.obtenerEstadisticasClientes();
+    }
+
+    @Benchmark
+    public EstadisticasClientes estadisticasClientesEnBd() {
+        return informeService.calcularEstadisticasClientes();
+    }
+
+    @Benchmark
+    public Page<Cliente> buscarClientes() {
+        return clienteService.buscar("marín", PRIMERA_PAGINA);
+    }
+
+    @Benchmark
+    public Page<Review> buscarReviews() {
+        return reviewService.buscar("paella excelente", PRIMERA_PAGINA);
+    }
+}
@@ -0,0 +1,137 @@
+package com.aura.reviews.config;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.springframework.web.servlet.support.SessionFlashMapManager;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.aura.reviews.service.TokenCambios;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+// Caché del HTML ya renderizado de los listados y del panel (aura.cache-html.activa).
+// La clave es la página con sus parámetros (page, busqueda, after, before) y cada entrada
+// guarda el token de clientes y reviews con el que se generó: cualquier escritura cambia el
+// token y la siguiente visita vuelve a renderizar. No se cachea ni se sirve desde caché una
+// página con mensajes flash (el aviso de "guardado" es de un solo usuario).
+@Component
+public class CachePaginasHtml extends OncePerRequestFilter {
+
+    private static final Set<String> PAGINAS = Set.of("/clientes", "/reviews", "/informes");
+    private static final String[] PARAMETROS = {"page", "busqueda", "after", "before"};
+
+    // Atributo de sesión donde SessionFlashMapManager deja los mensajes hasta la redirección
+    private static final String MENSAJES_FLASH = SessionFlashMapManager.class.getName() + ".FLASH_MAPS";
+
+    private record Pagina(String token, String tipo, byte[] cuerpo) {
+    }
+
+    @Value("${aura.cache-html.activa:false}")
+    private boolean activa;
+
+    @Value("${aura.cache-html.maximo-paginas:500}")
+    private int maximoPaginas;
+
+    @Autowired
+    private TokenCambios tokenCambios;
+
+    // ReentrantLock y no synchronized: con hilos virtuales, esperar en un synchronized
+    // fija el hilo a su carrier. Hasta un get() cambia el mapa (orden de acceso)
+    private final ReentrantLock bloqueo = new ReentrantLock();
+
+    // LRU por orden de acceso: las combinaciones de búsqueda poco repetidas salen primero
+    private final Map<String, Pagina> paginas = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Pagina> mayor) {
+            return size() > maximoPaginas;
+        }
+    };
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest peticion) {
+        return !activa || !"GET".equals(peticion.getMethod()) || !PAGINAS.contains(ruta(peticion))
+                || hayMensajesFlash(peticion) || urlConSesion(peticion);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest peticion, HttpServletResponse respuesta, FilterChain cadena)
+            throws ServletException, IOException {
+        String clave = clave(peticion);
+        // Se lee antes de renderizar: si hay una escritura a la vez, la entrada ya nace caducada
+        String token = tokenCambios.token(TokenCambios.Tabla.CLIENTES, TokenCambios.Tabla.REVIEWS);
+        Pagina pagina;
+        bloqueo.lock();
+        try {
+            pagina = paginas.get(clave);
+        } finally {
+            bloqueo.unlock();
+        }
+        if (pagina != null && pagina.token().equals(token)) {
+            respuesta.setContentType(pagina.tipo());
+            respuesta.setContentLength(pagina.cuerpo().length);
+            respuesta.getOutputStream().write(pagina.cuerpo());
+            return;
+        }
+
+        ContentCachingResponseWrapper copia = new ContentCachingResponseWrapper(respuesta);
+        try {
+            cadena.doFilter(peticion, copia);
+            String tipo = copia.getContentType();
+            if (copia.getStatus() == HttpStatus.OK.value() && tipo != null
+                    && MediaType.TEXT_HTML.isCompatibleWith(MediaType.parseMediaType(tipo))
+                    && CollectionUtils.isEmpty(RequestContextUtils.getInputFlashMap(peticion))) {
+                Pagina renderizada = new Pagina(token, tipo, copia.getContentAsByteArray());
+                bloqueo.lock();
+                try {
+                    paginas.put(clave, renderizada);
+                } finally {
+                    bloqueo.unlock();
+                }
+            }
+        } finally {
+            copia.copyBodyToResponse();
+        }
+    }
+
+    private static String clave(HttpServletRequest peticion) {
+        StringBuilder clave = new StringBuilder(ruta(peticion));
+        for (String parametro : PARAMETROS) {
+            String valor = peticion.getParameter(parametro);
+            clave.append('\n').append(valor == null ? "" : valor);
+        }
+        return clave.toString();
+    }
+
+    private static String ruta(HttpServletRequest peticion) {
+        return peticion.getRequestURI().substring(peticion.getContextPath().length());
+    }
+
+    private static boolean hayMensajesFlash(HttpServletRequest peticion) {
+        HttpSession sesion = peticion.getSession(false);
+        return sesion != null && sesion.getAttribute(MENSAJES_FLASH) instanceof Collection<?> mensajes
+                && !mensajes.isEmpty()
+                || !CollectionUtils.isEmpty(RequestContextUtils.getInputFlashMap(peticion));
+    }
+
+    // Sin cookie de sesión los enlaces llevan ;jsessionid y la página deja de ser común
+    private static boolean urlConSesion(HttpServletRequest peticion) {
+        return peticion.getSession(false) != null && !peticion.isRequestedSessionIdFromCookie();
+    }
+}
@@ -0,0 +1,39 @@
+package com.aura.reviews.config;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+// CacheManager JCache de la caché de segundo nivel, propio de este contexto.
+// El proveedor comparte un CacheManager por (URI, classloader) en toda la JVM y Hibernate
+// lo cierra al parar; con uno por contexto, parar un contexto no rompe a los demás (p. ej. en tests).
+@Configuration
+public class CacheSegundoNivelConfig {
+
+    private static final String CONFIGURACION = "cache-segundo-nivel.conf";
+
+    // El CacheManager solo guarda una referencia débil a su classloader: se mantiene aquí
+    private final ClassLoader classLoaderDelContexto = new ClassLoader(getClass().getClassLoader()) {
+    };
+
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerSegundoNivel() throws URISyntaxException {
+        URI uri = getClass().getClassLoader().getResource(CONFIGURACION).toURI();
+        CachingProvider proveedor = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        return proveedor.getCacheManager(uri, classLoaderDelContexto);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivelCustomizer(CacheManager cacheManagerSegundoNivel) {
+        return propiedades -> propiedades.put("hibernate.javax.cache.cache_manager", cacheManagerSegundoNivel);
+    }
+}
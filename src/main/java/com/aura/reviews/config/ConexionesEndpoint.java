@@ -0,0 +1,23 @@
+package com.aura.reviews.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+// /actuator/conexiones: por pool, conexiones activas, hilos en espera y la pila actual de cada
+// hilo que retiene una conexión, más el último pico de espera registrado (ver VigilanciaConexiones)
+@Component
+@Endpoint(id = "conexiones")
+public class ConexionesEndpoint {
+
+    @Autowired
+    private VigilanciaConexiones vigilanciaConexiones;
+
+    @ReadOperation
+    public List<VigilanciaConexiones.EstadoPool> conexiones() {
+        return vigilanciaConexiones.estado();
+    }
+}
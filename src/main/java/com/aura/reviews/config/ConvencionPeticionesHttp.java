@@ -0,0 +1,62 @@
+package com.aura.reviews.config;
+
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import jakarta.servlet.http.HttpServletRequest;
+
+// Etiquetas extra en http.server.requests para localizar búsquedas largas y páginas profundas.
+// Se agrupan en tramos: un valor por término o por página dispararía el número de series
+@Component
+public class ConvencionPeticionesHttp extends DefaultServerRequestObservationConvention {
+
+    static final String BUSQUEDA = "busqueda";
+    static final String PAGINA = "pagina";
+    static final String NINGUNA = "ninguna";
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        HttpServletRequest peticion = context.getCarrier();
+        return super.getLowCardinalityKeyValues(context).and(
+                KeyValue.of(BUSQUEDA, tramoBusqueda(peticion.getParameter("busqueda"))),
+                KeyValue.of(PAGINA, tramoPagina(peticion)));
+    }
+
+    // Longitud del término: ninguna, 1-3, 4-10, 11+
+    static String tramoBusqueda(String busqueda) {
+        int longitud = busqueda == null ? 0 : busqueda.trim().length();
+        if (longitud == 0) {
+            return NINGUNA;
+        }
+        if (longitud <= 3) {
+            return "1-3";
+        }
+        return longitud <= 10 ? "4-10" : "11+";
+    }
+
+    // Número de página: ninguna, cursor, 0, 1-9, 10-99, 100+
+    static String tramoPagina(HttpServletRequest peticion) {
+        if (peticion.getParameter("after") != null || peticion.getParameter("before") != null) {
+            return "cursor";
+        }
+        String page = peticion.getParameter("page");
+        if (page == null) {
+            return NINGUNA;
+        }
+        try {
+            int pagina = Integer.parseInt(page.trim());
+            if (pagina <= 0) {
+                return "0";
+            }
+            if (pagina < 10) {
+                return "1-9";
+            }
+            return pagina < 100 ? "10-99" : "100+";
+        } catch (NumberFormatException e) {
+            return NINGUNA;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.aura.reviews.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.aura.reviews.service.LecturasEnPrimaria;
+import com.zaxxer.hikari.HikariDataSource;
+
+// DataSource de lectura/escritura: las transacciones de solo lectura van por turnos a una
+// réplica sana y todo lo demás a la primaria. Va detrás de LazyConnectionDataSourceProxy, que
+// pide la conexión en la primera sentencia, cuando ya se sabe si la transacción es readOnly.
+// Una comprobación periódica saca de la rotación las réplicas que no responden (o no pasan la
+// consulta de salud) y las devuelve al recuperarse; sin réplicas sanas se lee de la primaria.
+public class DataSourceEnrutado extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourceEnrutado.class);
+
+    static final String PRIMARIA = "primaria";
+    private static final int TIMEOUT_SALUD_S = 2;
+
+    private final DataSource primaria;
+    private final Map<String, HikariDataSource> replicas;
+    private final String consultaSalud;
+
+    // Hasta la primera comprobación no se lee de ninguna réplica
+    private volatile List<String> sanas = List.of();
+    private final AtomicInteger turno = new AtomicInteger();
+
+    public DataSourceEnrutado(DataSource primaria, Map<String, HikariDataSource> replicas, String consultaSalud) {
+        this.primaria = primaria;
+        this.replicas = replicas;
+        this.consultaSalud = consultaSalud == null || consultaSalud.isBlank() ? null : consultaSalud;
+        Map<Object, Object> destinos = new HashMap<>(replicas);
+        destinos.put(PRIMARIA, primaria);
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primaria);
+    }
+
+    public List<String> replicasSanas() {
+        return sanas;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return destino();
+    }
+
+    // Si la réplica elegida no da conexión se retira de la rotación y se usa la primaria
+    @Override
+    public Connection getConnection() throws SQLException {
+        String destino = destino();
+        if (PRIMARIA.equals(destino)) {
+            return primaria.getConnection();
+        }
+        try {
+            return replicas.get(destino).getConnection();
+        } catch (SQLException e) {
+            retirar(destino, e);
+            return primaria.getConnection();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${aura.replicas.comprobacion-ms:5000}")
+    public void comprobarReplicas() {
+        List<String> respondenAhora = new ArrayList<>();
+        replicas.forEach((nombre, replica) -> {
+            if (responde(nombre, replica)) {
+                respondenAhora.add(nombre);
+            }
+        });
+        List<String> anteriores = sanas;
+        sanas = List.copyOf(respondenAhora);
+        respondenAhora.stream().filter(nombre -> !anteriores.contains(nombre))
+                .forEach(nombre -> log.info("Réplica {} disponible para lecturas", nombre));
+    }
+
+    @Override
+    public void close() {
+        replicas.values().forEach(HikariDataSource::close);
+    }
+
+    private String destino() {
+        List<String> disponibles = sanas;
+        if (disponibles.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || LecturasEnPrimaria.activas()) {
+            return PRIMARIA;
+        }
+        return disponibles.get(Math.floorMod(turno.getAndIncrement(), disponibles.size()));
+    }
+
+    private boolean responde(String nombre, HikariDataSource replica) {
+        Connection conexion = null;
+        String motivo = "no responde";
+        try {
+            conexion = replica.getConnection();
+            try (Connection devuelta = conexion) {
+                if (consultaSalud == null ? devuelta.isValid(TIMEOUT_SALUD_S) : pasaConsulta(devuelta)) {
+                    return true;
+                }
+            }
+        } catch (SQLException e) {
+            motivo = e.getMessage();
+        }
+        // El pool no revalida las conexiones usadas hace poco: la que ha fallado no se reutiliza
+        if (conexion != null) {
+            replica.evictConnection(conexion);
+        }
+        if (sanas.contains(nombre)) {
+            log.warn("Réplica {} retirada de las lecturas: {}", nombre, motivo);
+        }
+        return false;
+    }
+
+    private boolean pasaConsulta(Connection conexion) throws SQLException {
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.setQueryTimeout(TIMEOUT_SALUD_S);
+            sentencia.execute(consultaSalud);
+            return true;
+        }
+    }
+
+    private synchronized void retirar(String nombre, SQLException e) {
+        if (sanas.contains(nombre)) {
+            log.warn("Réplica {} retirada de las lecturas: {}", nombre, e.getMessage());
+            sanas = sanas.stream().filter(otra -> !otra.equals(nombre)).toList();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.aura.reviews.config;
+
+import org.springframework.boot.http.converter.autoconfigure.ServerHttpMessageConvertersCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+// Formatos binarios de la API REST por negociación de contenido: CBOR (application/cbor) y
+// Smile (application/x-jackson-smile), con las mismas anotaciones Jackson que el JSON. Sin Accept
+// o con application/json se sigue respondiendo JSON. El CBOR usa el CBORMapper de Spring Boot
+// (propiedades spring.jackson.*); para Smile Boot no define ninguno.
+// Los ETag no dependen del formato y por eso son débiles (CondicionesHttp); Vary: Accept evita
+// que una caché sirva un formato por otro
+@Configuration
+public class FormatosBinariosConfig implements WebMvcConfigurer {
+
+    @Bean
+    public ServerHttpMessageConvertersCustomizer convertidoresBinarios(CBORMapper cborMapper) {
+        SmileMapper smileMapper = SmileMapper.builder().findAndAddModules().build();
+        return convertidores -> convertidores
+                .withCborConverter(new JacksonCborHttpMessageConverter(cborMapper))
+                .withSmileConverter(new JacksonSmileHttpMessageConverter(smileMapper));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registro) {
+        registro.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest peticion, HttpServletResponse respuesta, Object handler) {
+                respuesta.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                return true;
+            }
+        }).addPathPatterns("/api/**");
+    }
+}
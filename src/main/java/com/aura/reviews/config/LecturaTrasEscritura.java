@@ -0,0 +1,55 @@
+package com.aura.reviews.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import com.aura.reviews.service.LecturasEnPrimaria;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Lectura de las propias escrituras con réplicas (ver ReplicasConfig): una petición que escribe
+// deja una cookie que dura la ventana de escritura, y mientras el navegador la envíe sus lecturas
+// van a la primaria. Así, tras guardar, la redirección al listado ya muestra el cambio aunque la
+// réplica vaya con retraso. Las peticiones que escriben leen también de la primaria.
+public class LecturaTrasEscritura extends OncePerRequestFilter {
+
+    static final String COOKIE = "aura-escritura";
+
+    private static final Set<String> METODOS_LECTURA = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Duration ventana;
+
+    public LecturaTrasEscritura(Duration ventana) {
+        this.ventana = ventana;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest peticion, HttpServletResponse respuesta, FilterChain cadena)
+            throws ServletException, IOException {
+        boolean escritura = !METODOS_LECTURA.contains(peticion.getMethod());
+        if (escritura) {
+            // Antes de la cadena: después la respuesta puede estar ya enviada
+            ResponseCookie cookie = ResponseCookie.from(COOKIE, "1")
+                    .maxAge(ventana)
+                    .path("/")
+                    .httpOnly(true)
+                    .build();
+            respuesta.addHeader("Set-Cookie", cookie.toString());
+        }
+        if (!escritura && WebUtils.getCookie(peticion, COOKIE) == null) {
+            cadena.doFilter(peticion, respuesta);
+            return;
+        }
+        try (LecturasEnPrimaria.Ambito primaria = LecturasEnPrimaria.abrir()) {
+            cadena.doFilter(peticion, respuesta);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.aura.reviews.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+// Réplicas de lectura (aura.replicas.urls, separadas por comas). Sin la propiedad se usa el
+// DataSource de siempre. La primaria se sigue configurando con spring.datasource.*; las réplicas
+// copian su pool y, si no se indican aura.replicas.usuario/contrasena, también sus credenciales.
+@Configuration
+@ConditionalOnProperty(prefix = "aura.replicas", name = "urls")
+public class ReplicasConfig {
+
+    @Value("${aura.replicas.urls}")
+    private String[] urls;
+
+    @Value("${aura.replicas.usuario:}")
+    private String usuario;
+
+    @Value("${aura.replicas.contrasena:}")
+    private String contrasena;
+
+    @Value("${aura.replicas.consulta-salud:}")
+    private String consultaSalud;
+
+    @Value("${aura.replicas.ventana-escritura:5s}")
+    private Duration ventanaEscritura;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimaria(DataSourceProperties propiedades) {
+        return propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public DataSourceEnrutado dataSourceEnrutado(HikariDataSource dataSourcePrimaria) {
+        Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String nombre = "replica-" + (replicas.size() + 1);
+            HikariConfig config = new HikariConfig();
+            dataSourcePrimaria.copyStateTo(config);
+            config.setJdbcUrl(url.trim());
+            config.setPoolName(nombre);
+            if (!usuario.isBlank()) {
+                config.setUsername(usuario);
+                config.setPassword(contrasena);
+            }
+            // Una réplica caída no debe impedir el arranque ni retener peticiones: la comprobación
+            // periódica la deja fuera y se lee de la primaria
+            config.setInitializationFailTimeout(-1);
+            config.setConnectionTimeout(1000);
+            replicas.put(nombre, new HikariDataSource(config));
+        }
+        return new DataSourceEnrutado(dataSourcePrimaria, replicas, consultaSalud);
+    }
+
+    // El que usan JPA y el resto de la aplicación: la conexión se elige al lanzar la primera
+    // sentencia, cuando la transacción ya está marcada (o no) como de solo lectura
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceEnrutado dataSourceEnrutado) {
+        return new LazyConnectionDataSourceProxy(dataSourceEnrutado);
+    }
+
+    // Con open-in-view la sesión de Hibernate conserva su primera conexión hasta el final de la
+    // petición; así cada transacción pide la suya y una escritura no reutiliza la de una réplica
+    @Bean
+    public HibernatePropertiesCustomizer conexionPorTransaccionCustomizer() {
+        return propiedades -> propiedades.put("hibernate.connection.handling_mode",
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public LecturaTrasEscritura lecturaTrasEscritura() {
+        return new LecturaTrasEscritura(ventanaEscritura);
+    }
+}
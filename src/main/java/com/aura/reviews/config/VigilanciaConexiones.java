@@ -0,0 +1,196 @@
+package com.aura.reviews.config;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Quién tiene cada conexión de los pools Hikari. Se engancha como MetricsTrackerFactory (sin
+// perder las métricas hikaricp.* de Micrometer): Hikari avisa en el hilo que pide la conexión
+// y en el que la devuelve, así que basta con apuntar el hilo y la hora. La pila se lee solo al
+// consultar (/actuator/conexiones) o cuando una espera supera aura.conexiones.umbral-espera;
+// en ese caso se registra en el log y se guarda como último pico, como mucho una vez por intervalo.
+@Component
+public class VigilanciaConexiones implements BeanPostProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(VigilanciaConexiones.class);
+
+    private static final int MAXIMO_MARCOS = 64;
+    private static final String PAQUETE_APLICACION = "com.aura.reviews.";
+
+    public record Prestamo(String hilo, long retenidaMs, List<String> pila) {
+    }
+
+    public record Pico(Instant cuando, long esperaMs, boolean timeout, List<Prestamo> prestamos) {
+    }
+
+    public record EstadoPool(String pool, int activas, int inactivas, int esperando, int maximo,
+                             List<Prestamo> prestamos, Pico ultimoPico) {
+    }
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${aura.conexiones.umbral-espera:500ms}")
+    private Duration umbralEspera;
+
+    @Value("${aura.conexiones.intervalo-picos:10s}")
+    private Duration intervaloPicos;
+
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+
+    // Antes de arrancar el pool; si ya tiene métricas configuradas se deja como está.
+    // Las réplicas (ReplicasConfig) lo heredan de la primaria con copyStateTo
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String nombre) {
+        if (bean instanceof HikariDataSource dataSource
+                && dataSource.getMetricsTrackerFactory() == null && dataSource.getMetricRegistry() == null) {
+            dataSource.setMetricsTrackerFactory((pool, estadisticas) -> {
+                MeterRegistry registro = meterRegistry.getIfAvailable();
+                IMetricsTracker metricas = registro != null
+                        ? new MicrometerMetricsTrackerFactory(registro).create(pool, estadisticas)
+                        : new IMetricsTracker() {
+                        };
+                Pool vigilado = new Pool(pool, estadisticas, metricas);
+                pools.put(pool, vigilado);
+                return vigilado;
+            });
+        }
+        return bean;
+    }
+
+    public List<EstadoPool> estado() {
+        return pools.values().stream()
+                .sorted((a, b) -> a.nombre.compareTo(b.nombre))
+                .map(Pool::estado)
+                .toList();
+    }
+
+    // Sin los marcos de esta clase cuando el hilo es el que consulta
+    private static List<String> pila(Thread hilo) {
+        return Arrays.stream(hilo.getStackTrace())
+                .dropWhile(marco -> marco.getClassName().startsWith(Thread.class.getName())
+                        || marco.getClassName().startsWith(VigilanciaConexiones.class.getName())
+                        || marco.getClassName().startsWith("java.util."))
+                .limit(MAXIMO_MARCOS)
+                .map(StackTraceElement::toString)
+                .toList();
+    }
+
+    // Conexiones de un hilo: normalmente una, dos con REQUIRES_NEW
+    private record Retenidas(int cuantas, long desdeNanos) {
+    }
+
+    private final class Pool implements IMetricsTracker {
+
+        private final String nombre;
+        private final PoolStats estadisticas;
+        private final IMetricsTracker metricas;
+        private final Map<Thread, Retenidas> porHilo = new ConcurrentHashMap<>();
+        private final AtomicLong ultimoPicoNanos = new AtomicLong(System.nanoTime() - TimeUnit.DAYS.toNanos(1));
+        private volatile Pico ultimoPico;
+
+        Pool(String nombre, PoolStats estadisticas, IMetricsTracker metricas) {
+            this.nombre = nombre;
+            this.estadisticas = estadisticas;
+            this.metricas = metricas;
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long esperaNanos) {
+            metricas.recordConnectionAcquiredNanos(esperaNanos);
+            long ahora = System.nanoTime();
+            porHilo.merge(Thread.currentThread(), new Retenidas(1, ahora),
+                    (actual, nueva) -> new Retenidas(actual.cuantas() + 1, actual.desdeNanos()));
+            if (esperaNanos >= umbralEspera.toNanos()) {
+                registrarPico(esperaNanos, false);
+            }
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long usoMs) {
+            metricas.recordConnectionUsageMillis(usoMs);
+            porHilo.computeIfPresent(Thread.currentThread(),
+                    (hilo, actual) -> actual.cuantas() > 1 ? new Retenidas(actual.cuantas() - 1, actual.desdeNanos()) : null);
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long creacionMs) {
+            metricas.recordConnectionCreatedMillis(creacionMs);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            metricas.recordConnectionTimeout();
+            registrarPico(0, true);
+        }
+
+        @Override
+        public void close() {
+            metricas.close();
+            pools.remove(nombre, this);
+        }
+
+        EstadoPool estado() {
+            return new EstadoPool(nombre, estadisticas.getActiveConnections(), estadisticas.getIdleConnections(),
+                    estadisticas.getPendingThreads(), estadisticas.getMaxConnections(), prestamos(), ultimoPico);
+        }
+
+        // Las más antiguas primero: suelen ser las que bloquean a las demás
+        private List<Prestamo> prestamos() {
+            long ahora = System.nanoTime();
+            porHilo.keySet().removeIf(hilo -> !hilo.isAlive());
+            return porHilo.entrySet().stream()
+                    .sorted(Map.Entry.comparingByValue((a, b) -> Long.compare(a.desdeNanos(), b.desdeNanos())))
+                    .map(entrada -> new Prestamo(entrada.getKey().getName().isEmpty()
+                                    ? entrada.getKey().toString() : entrada.getKey().getName(),
+                            TimeUnit.NANOSECONDS.toMillis(ahora - entrada.getValue().desdeNanos()),
+                            pila(entrada.getKey())))
+                    .toList();
+        }
+
+        private void registrarPico(long esperaNanos, boolean timeout) {
+            long ahora = System.nanoTime();
+            long anterior = ultimoPicoNanos.get();
+            if (ahora - anterior < intervaloPicos.toNanos() || !ultimoPicoNanos.compareAndSet(anterior, ahora)) {
+                return;
+            }
+            List<Prestamo> prestamos = prestamos();
+            Pico pico = new Pico(Instant.now(), TimeUnit.NANOSECONDS.toMillis(esperaNanos), timeout, prestamos);
+            ultimoPico = pico;
+            log.warn("Pool {}: {} ({} activas, {} esperando). Conexiones retenidas: {}", nombre,
+                    timeout ? "timeout al pedir conexión" : "espera de " + pico.esperaMs() + " ms al pedir conexión",
+                    estadisticas.getActiveConnections(), estadisticas.getPendingThreads(),
+                    prestamos.stream().map(VigilanciaConexiones::resumen).collect(Collectors.joining("; ")));
+        }
+    }
+
+    // Hilo, tiempo retenida y primer marco de la aplicación (dónde se pidió o se está usando)
+    private static String resumen(Prestamo prestamo) {
+        String marco = prestamo.pila().stream()
+                .filter(linea -> linea.startsWith(PAQUETE_APLICACION) && !linea.contains(".config."))
+                .findFirst()
+                .orElse("?");
+        return prestamo.hilo() + " " + prestamo.retenidaMs() + " ms en " + marco;
+    }
+}
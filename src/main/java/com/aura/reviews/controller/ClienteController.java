@@ -1,5 +1,7 @@
 package com.aura.reviews.controller;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -16,9 +18,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.aura.reviews.dto.PaginaCursor;
 import com.aura.reviews.entity.Cliente;
 import com.aura.reviews.service.ClienteService;
-import com.aura.reviews.service.ReviewService;
 
 import jakarta.validation.Valid;
 
@@ -32,13 +34,16 @@ public class ClienteController {
     @Autowired
     private ClienteService clienteService;
 
-    @Autowired
-    private ReviewService reviewService;
-
     @GetMapping
     public String listar(@RequestParam(defaultValue = "0") int page,
                          @RequestParam(required = false) String busqueda,
+                         @RequestParam(required = false) Long after,
+                         @RequestParam(required = false) Long before,
                          Model model) {
+        if (after != null || before != null) {
+            return listarPorCursor(busqueda, after, before, model);
+        }
+        
         Pageable pageable = PageRequest.of(page, TAMANO_PAGINA, Sort.by("id").descending());
         Page<Cliente> paginaClientes;
         
@@ -53,6 +58,26 @@ public class ClienteController {
         model.addAttribute("paginaActual", page);
         model.addAttribute("totalPaginas", paginaClientes.getTotalPages());
         model.addAttribute("totalElementos", paginaClientes.getTotalElements());
+        model.addAttribute("modoCursor", false);
+        // "Siguiente" continúa por cursor para no pagar OFFSET en páginas profundas
+        if (paginaClientes.hasNext()) {
+            List<Cliente> contenido = paginaClientes.getContent();
+            model.addAttribute("cursorSiguiente", contenido.get(contenido.size() - 1).getId());
+        }
+        return "clientes/lista";
+    }
+
+    // Modo cursor (?after= / ?before=): WHERE id < cursor LIMIT n, sin OFFSET ni COUNT(*)
+    private String listarPorCursor(String busqueda, Long after, Long before, Model model) {
+        PaginaCursor<Cliente> pagina = clienteService.listarPorCursor(busqueda, after, before, TAMANO_PAGINA);
+        if (busqueda != null && !busqueda.trim().isEmpty()) {
+            model.addAttribute("busqueda", busqueda);
+        }
+        model.addAttribute("clientes", pagina.contenido());
+        model.addAttribute("totalElementos", pagina.totalEstimado());
+        model.addAttribute("modoCursor", true);
+        model.addAttribute("cursorAnterior", pagina.cursorAnterior());
+        model.addAttribute("cursorSiguiente", pagina.cursorSiguiente());
         return "clientes/lista";
     }
 
@@ -91,13 +116,7 @@ public class ClienteController {
 
     @PostMapping("/eliminar/{id}")
     public String eliminar(@PathVariable Long id, RedirectAttributes redirectAttributes) {
-        Cliente cliente = clienteService.buscarPorId(id);
-        
-        // Desvincular review si existe
-        if (cliente.getReview() != null) {
-            reviewService.borrar(cliente.getReview().getId());
-        }
-        
+        // Borra también su review
         clienteService.borrar(id);
         redirectAttributes.addFlashAttribute("mensaje", "Cliente eliminado correctamente");
         return "redirect:/clientes";
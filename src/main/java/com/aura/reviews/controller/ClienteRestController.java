@@ -3,7 +3,13 @@ package com.aura.reviews.controller;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,11 +17,24 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.aura.reviews.dto.FiltroSegmento;
+import com.aura.reviews.dto.OpcionCliente;
+import com.aura.reviews.dto.PaginaCursor;
+import com.aura.reviews.dto.RespuestaLote;
 import com.aura.reviews.entity.Cliente;
+import com.aura.reviews.entity.FranjaEdad;
 import com.aura.reviews.service.ClienteService;
+import com.aura.reviews.service.ExportacionService;
+import com.aura.reviews.service.LoteService;
+import com.aura.reviews.service.TokenCambios;
 
 import jakarta.validation.Valid;
 
@@ -24,19 +43,139 @@ import jakarta.validation.Valid;
 @RequestMapping("/api/clientes")
 public class ClienteRestController {
 
+    private static final int TAMANO_POR_DEFECTO = 20;
+    private static final int TAMANO_MAXIMO = 100;
+    private static final int SUGERENCIAS_POR_DEFECTO = 10;
+    private static final int SUGERENCIAS_MAXIMO = 50;
+
     @Autowired
     private ClienteService clienteService;
 
+    @Autowired
+    private ExportacionService exportacionService;
+
+    @Autowired
+    private LoteService loteService;
+
+    @Autowired
+    private TokenCambios tokenCambios;
+
+    // Por defecto devuelve una página (?page=&size=, máximo 100) en orden de id, sin COUNT(*);
+    // si hay más, la cabecera Link indica la siguiente. Con ?after=, ?before= o
+    // ?paginacion=cursor devuelve una página por cursor (id descendente)
     @GetMapping
-    public ResponseEntity<List<Cliente>> listarTodos() {
-        return ResponseEntity.ok(clienteService.listarTodos());
+    public ResponseEntity<?> listarTodos(@RequestParam(required = false) Long after,
+                                         @RequestParam(required = false) Long before,
+                                         @RequestParam(required = false) String paginacion,
+                                         @RequestParam(required = false) String busqueda,
+                                         @RequestParam(defaultValue = "0") int page,
+                                         @RequestParam(defaultValue = "" + TAMANO_POR_DEFECTO) int size,
+                                         WebRequest peticion) {
+        // Sin escrituras desde la petición anterior la página es la misma: 304 sin consultar la BD
+        String etag = CondicionesHttp.etag(tokenCambios.token(TokenCambios.Tabla.CLIENTES));
+        if (peticion.checkNotModified(etag)) {
+            return null;
+        }
+        if (after != null || before != null || "cursor".equals(paginacion)) {
+            PaginaCursor<Cliente> pagina = clienteService.listarPorCursor(busqueda, after, before, limitarTamano(size));
+            return ResponseEntity.ok(pagina);
+        }
+
+        int tamano = limitarTamano(size);
+        Slice<Cliente> pagina = clienteService.listarSlice(PageRequest.of(Math.max(page, 0), tamano, Sort.by("id")));
+        return respuestaPaginada(pagina, tamano);
+    }
+
+    // Typeahead del formulario de reviews: ?q=prefijo del nombre, solo clientes sin review
+    @GetMapping("/sugerencias")
+    public List<OpcionCliente> sugerir(@RequestParam(defaultValue = "") String q,
+                                       @RequestParam(defaultValue = "" + SUGERENCIAS_POR_DEFECTO) int limite) {
+        return clienteService.sugerirSinReview(q, Math.max(1, Math.min(limite, SUGERENCIAS_MAXIMO)));
+    }
+
+    // Clientes de un segmento: ?genero=...&franja=25-35&intolerancia=true (todos opcionales).
+    // Paginado como el listado general, sin COUNT(*)
+    @GetMapping("/segmento")
+    public ResponseEntity<List<Cliente>> listarSegmento(@RequestParam(required = false) String genero,
+                                                        @RequestParam(required = false) String franja,
+                                                        @RequestParam(required = false) Boolean intolerancia,
+                                                        @RequestParam(defaultValue = "0") int page,
+                                                        @RequestParam(defaultValue = "" + TAMANO_POR_DEFECTO) int size) {
+        FiltroSegmento filtro = filtroSegmento(genero, franja, intolerancia, null);
+        if (filtro == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        int tamano = limitarTamano(size);
+        Slice<Cliente> pagina = clienteService.listarSegmento(filtro, PageRequest.of(Math.max(page, 0), tamano, Sort.by("id")));
+        return respuestaPaginada(pagina, tamano);
+    }
+
+    // Número de clientes del segmento (mismos filtros que /segmento)
+    @GetMapping("/segmento/total")
+    public ResponseEntity<Long> contarSegmento(@RequestParam(required = false) String genero,
+                                               @RequestParam(required = false) String franja,
+                                               @RequestParam(required = false) Boolean intolerancia) {
+        FiltroSegmento filtro = filtroSegmento(genero, franja, intolerancia, null);
+        if (filtro == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(clienteService.contarSegmento(filtro));
     }
 
+    // null si la franja o la valoración no son válidas
+    private static FiltroSegmento filtroSegmento(String genero, String franja, Boolean intolerancia, Integer valoracion) {
+        String etiqueta = null;
+        if (franja != null) {
+            etiqueta = FranjaEdad.deParametro(franja).orElse(null);
+            if (etiqueta == null) {
+                return null;
+            }
+        }
+        return new FiltroSegmento(genero, etiqueta, intolerancia, valoracion);
+    }
+
+    // Si hay más resultados, la cabecera Link indica la siguiente página
+    private static <T> ResponseEntity<List<T>> respuestaPaginada(Slice<T> pagina, int tamano) {
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok();
+        if (pagina.hasNext()) {
+            String siguiente = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("page", pagina.getNumber() + 1)
+                    .replaceQueryParam("size", tamano)
+                    .toUriString();
+            respuesta.header(HttpHeaders.LINK, "<" + siguiente + ">; rel=\"next\"");
+        }
+        return respuesta.body(pagina.getContent());
+    }
+
+    // Exportación completa en NDJSON (una entidad por línea) con memoria constante
+    @GetMapping(params = "formato=ndjson")
+    public ResponseEntity<StreamingResponseBody> exportarNdjson() {
+        StreamingResponseBody cuerpo = exportacionService::exportarClientesNdjson;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(cuerpo);
+    }
+
+    // Exportación CSV para hojas de cálculo, leída con un cursor JDBC (memoria constante).
+    // ?busqueda= filtra igual que el buscador; ?gzip=true la comprime; ?bom=true añade BOM para Excel
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportarCsv(@RequestParam(required = false) String busqueda,
+                                                             @RequestParam(defaultValue = "false") boolean gzip,
+                                                             @RequestParam(defaultValue = "false") boolean bom) {
+        StreamingResponseBody cuerpo = salida -> exportacionService.exportarClientesCsv(busqueda, gzip, bom, salida);
+        String fichero = "clientes.csv" + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : "text/csv;charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fichero)
+                .body(cuerpo);
+    }
+
+    // Con ETag y Last-Modified: 304 si el cliente ya tiene esta versión
     @GetMapping("/{id}")
     public ResponseEntity<Cliente> obtenerPorId(@PathVariable Long id) {
         try {
             Cliente cliente = clienteService.buscarPorId(id);
-            return ResponseEntity.ok(cliente);
+            return CondicionesHttp.conValidadores(cliente, CondicionesHttp.etag(cliente), cliente.getModificado());
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
         }
@@ -53,22 +192,44 @@ public class ClienteRestController {
         return ResponseEntity.status(HttpStatus.CREATED).body(guardado);
     }
 
+    // Con If-Match solo se guarda si el cliente sigue en esa versión; si no, 412
     @PutMapping("/{id}")
     public ResponseEntity<Cliente> actualizar(@PathVariable Long id,
-                                              @Valid @RequestBody Cliente cliente) {
+                                              @Valid @RequestBody Cliente cliente,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            clienteService.buscarPorId(id);
+            Cliente actual = clienteService.buscarPorId(id);
+            if (!CondicionesHttp.cumpleIfMatch(ifMatch, CondicionesHttp.etag(actual))) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+            if (ifMatch != null) {
+                // Si otra petición lo modifica antes de guardar, Hibernate detecta el cambio de versión
+                cliente.setVersion(actual.getVersion());
+            }
             cliente.setId(id);
             if (cliente.getIntolerancia() == null || !cliente.getIntolerancia()) {
                 cliente.setIntolerancia(false);
                 cliente.setDetalleIntolerancia(null);
             }
-            return ResponseEntity.ok(clienteService.guardar(cliente));
+            Cliente guardado = clienteService.guardar(cliente);
+            return CondicionesHttp.conValidadores(guardado, CondicionesHttp.etag(guardado), guardado.getModificado());
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         }
     }
 
+    // Alta/modificación por lotes (hasta 5000 elementos): con id se actualiza, sin id se crea.
+    // Devuelve un resultado por elemento; los inválidos no impiden guardar el resto
+    @PostMapping("/batch")
+    public ResponseEntity<RespuestaLote> guardarLote(@RequestBody List<Cliente> clientes) {
+        if (clientes.size() > LoteService.TAMANO_MAXIMO) {
+            return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE).build();
+        }
+        return ResponseEntity.ok(loteService.guardarClientes(clientes));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> eliminar(@PathVariable Long id) {
         try {
@@ -78,4 +239,8 @@ public class ClienteRestController {
             return ResponseEntity.notFound().build();
         }
     }
+
+    private int limitarTamano(int size) {
+        return Math.max(1, Math.min(size, TAMANO_MAXIMO));
+    }
 }
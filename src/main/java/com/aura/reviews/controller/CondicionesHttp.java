@@ -0,0 +1,74 @@
+package com.aura.reviews.controller;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.StringJoiner;
+
+import org.springframework.http.ResponseEntity;
+
+import com.aura.reviews.entity.Cliente;
+import com.aura.reviews.entity.Review;
+
+// Validadores HTTP de las entidades: ETag débil a partir de @Version y Last-Modified.
+// Con ellos Spring responde 304 a If-None-Match/If-Modified-Since sin serializar el cuerpo,
+// y los PUT comprueban If-Match (412 si la entidad cambió desde que el cliente la leyó).
+// Débil (W/): la versión identifica los datos, no los bytes, que cambian con el formato negociado
+// (JSON, CBOR, Smile) y con gzip; además Tomcat no comprime respuestas con ETag fuerte
+final class CondicionesHttp {
+
+    private CondicionesHttp() {
+    }
+
+    static String etag(Cliente cliente) {
+        return etag(cliente.getVersion());
+    }
+
+    // La review se serializa con su cliente: el ETag cambia si cambia cualquiera de los dos
+    static String etag(Review review) {
+        return review.getCliente() != null
+                ? etag(review.getVersion(), review.getCliente().getVersion())
+                : etag(review.getVersion());
+    }
+
+    static String etag(Object... partes) {
+        StringJoiner valor = new StringJoiner(".", "W/\"", "\"");
+        for (Object parte : partes) {
+            valor.add(String.valueOf(parte));
+        }
+        return valor.toString();
+    }
+
+    // 200 con ETag y, si consta, la modificación más reciente de las entidades incluidas
+    static <T> ResponseEntity<T> conValidadores(T cuerpo, String etag, LocalDateTime... modificaciones) {
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok().eTag(etag);
+        LocalDateTime ultima = null;
+        for (LocalDateTime modificacion : modificaciones) {
+            if (modificacion != null && (ultima == null || modificacion.isAfter(ultima))) {
+                ultima = modificacion;
+            }
+        }
+        if (ultima != null) {
+            respuesta.lastModified(ultima.toInstant(ZoneOffset.UTC));
+        }
+        return respuesta.body(cuerpo);
+    }
+
+    // Sin If-Match siempre se cumple; "*" o uno de los ETag de la lista. Comparación débil: los
+    // ETag son débiles y la versión basta para detectar una modificación concurrente
+    static boolean cumpleIfMatch(String ifMatch, String etagActual) {
+        if (ifMatch == null) {
+            return true;
+        }
+        for (String etiqueta : ifMatch.split(",")) {
+            String valor = etiqueta.trim();
+            if (valor.equals("*") || opaca(valor).equals(opaca(etagActual))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaca(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
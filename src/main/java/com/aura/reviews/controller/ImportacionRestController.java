@@ -0,0 +1,85 @@
+package com.aura.reviews.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.aura.reviews.dto.EstadoImportacion;
+import com.aura.reviews.service.ImportacionService;
+
+// API REST de importaciones masivas (/api/importaciones)
+@RestController
+@RequestMapping("/api/importaciones")
+public class ImportacionRestController {
+
+    private static final String TEXT_CSV = "text/csv";
+
+    @Autowired
+    private ImportacionService importacionService;
+
+    // Sube un CSV con cabecera (text/csv) o NDJSON (application/x-ndjson) de clientes o reviews.
+    // Responde 202 en cuanto el fichero está en disco; el progreso se consulta en la URL de Location
+    @PostMapping(value = "/{tipo}", consumes = {TEXT_CSV, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<EstadoImportacion> importar(@PathVariable String tipo,
+                                                      @RequestHeader(HttpHeaders.CONTENT_TYPE) String tipoContenido,
+                                                      InputStream cuerpo) throws IOException {
+        ImportacionService.Tipo tipoImportacion = switch (tipo) {
+            case "clientes" -> ImportacionService.Tipo.CLIENTES;
+            case "reviews" -> ImportacionService.Tipo.REVIEWS;
+            default -> null;
+        };
+        if (tipoImportacion == null) {
+            return ResponseEntity.notFound().build();
+        }
+        ImportacionService.Formato formato = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(tipoContenido))
+                ? ImportacionService.Formato.NDJSON
+                : ImportacionService.Formato.CSV;
+
+        EstadoImportacion estado = importacionService.iniciar(tipoImportacion, formato, cuerpo);
+        return ResponseEntity.accepted().location(ubicacion(estado)).body(estado);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<EstadoImportacion> consultar(@PathVariable String id) {
+        return importacionService.consultar(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Continúa una importación fallida o interrumpida desde su último punto de control
+    @PostMapping("/{id}/reanudar")
+    public ResponseEntity<EstadoImportacion> reanudar(@PathVariable String id) throws IOException {
+        return importacionService.reanudar(id)
+                .map(estado -> ResponseEntity.accepted().location(ubicacion(estado)).body(estado))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(value = "/{id}/rechazados", produces = TEXT_CSV)
+    public ResponseEntity<FileSystemResource> rechazados(@PathVariable String id) {
+        return importacionService.ficheroRechazados(id)
+                .map(ruta -> ResponseEntity.ok()
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=rechazados-" + id + ".csv")
+                        .body(new FileSystemResource(ruta)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private static URI ubicacion(EstadoImportacion estado) {
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/importaciones/{id}")
+                .buildAndExpand(estado.id())
+                .toUri();
+    }
+}
@@ -1,5 +1,7 @@
 package com.aura.reviews.controller;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -16,6 +18,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.aura.reviews.dto.PaginaCursor;
+import com.aura.reviews.dto.ReviewResumen;
 import com.aura.reviews.entity.Cliente;
 import com.aura.reviews.entity.Review;
 import com.aura.reviews.service.ClienteService;
@@ -39,21 +43,46 @@ public class ReviewController {
     @GetMapping
     public String listar(@RequestParam(defaultValue = "0") int page,
                          @RequestParam(required = false) String busqueda,
+                         @RequestParam(required = false) Long after,
+                         @RequestParam(required = false) Long before,
                          Model model) {
-        Pageable pageable = PageRequest.of(page, TAMANO_PAGINA, Sort.by("id").descending());
-        Page<Review> paginaReviews;
+        if (after != null || before != null) {
+            return listarPorCursor(busqueda, after, before, model);
+        }
         
+        // Resúmenes: las cuatro columnas de la tabla, sin cargar entidades
+        Pageable pageable = PageRequest.of(page, TAMANO_PAGINA, Sort.by("id").descending());
+        Page<ReviewResumen> paginaReviews = reviewService.buscarResumenes(busqueda, pageable);
         if (busqueda != null && !busqueda.trim().isEmpty()) {
-            paginaReviews = reviewService.buscar(busqueda, pageable);
             model.addAttribute("busqueda", busqueda);
-        } else {
-            paginaReviews = reviewService.listarPaginado(pageable);
         }
         
         model.addAttribute("reviews", paginaReviews.getContent());
         model.addAttribute("paginaActual", page);
         model.addAttribute("totalPaginas", paginaReviews.getTotalPages());
         model.addAttribute("totalElementos", paginaReviews.getTotalElements());
+        model.addAttribute("modoCursor", false);
+        // "Siguiente" continúa por cursor para no pagar OFFSET en páginas profundas. Con búsqueda
+        // sigue por número de página: el índice ordena por relevancia y un cursor por id saltaría
+        // o repetiría resultados
+        if (paginaReviews.hasNext() && (busqueda == null || busqueda.trim().isEmpty())) {
+            List<ReviewResumen> contenido = paginaReviews.getContent();
+            model.addAttribute("cursorSiguiente", contenido.get(contenido.size() - 1).id());
+        }
+        return "reviews/lista";
+    }
+
+    // Modo cursor (?after= / ?before=): WHERE id < cursor LIMIT n, sin OFFSET ni COUNT(*)
+    private String listarPorCursor(String busqueda, Long after, Long before, Model model) {
+        PaginaCursor<ReviewResumen> pagina = reviewService.listarResumenesPorCursor(busqueda, after, before, TAMANO_PAGINA);
+        if (busqueda != null && !busqueda.trim().isEmpty()) {
+            model.addAttribute("busqueda", busqueda);
+        }
+        model.addAttribute("reviews", pagina.contenido());
+        model.addAttribute("totalElementos", pagina.totalEstimado());
+        model.addAttribute("modoCursor", true);
+        model.addAttribute("cursorAnterior", pagina.cursorAnterior());
+        model.addAttribute("cursorSiguiente", pagina.cursorSiguiente());
         return "reviews/lista";
     }
 
@@ -62,7 +91,6 @@ public class ReviewController {
         Review review = new Review();
         review.setCliente(new Cliente());
         model.addAttribute("review", review);
-        cargarClientes(model);
         return "reviews/form";
     }
 
@@ -73,7 +101,6 @@ public class ReviewController {
             review.setCliente(new Cliente());
         }
         model.addAttribute("review", review);
-        cargarClientes(model);
         return "reviews/form";
     }
 
@@ -83,7 +110,7 @@ public class ReviewController {
                           Model model,
                           RedirectAttributes redirectAttributes) {
         if (bindingResult.hasErrors()) {
-            cargarClientes(model);
+            completarCliente(review);
             return "reviews/form";
         }
         
@@ -107,7 +134,17 @@ public class ReviewController {
         return "redirect:/reviews";
     }
 
-    private void cargarClientes(Model model) {
-        model.addAttribute("clientes", clienteService.listarTodos());
+    // El formulario solo envía el id del cliente: se carga para volver a mostrar su nombre
+    private void completarCliente(Review review) {
+        Long clienteId = review.getCliente() != null ? review.getCliente().getId() : null;
+        Cliente cliente = new Cliente();
+        if (clienteId != null) {
+            try {
+                cliente = clienteService.buscarPorId(clienteId);
+            } catch (IllegalArgumentException e) {
+                // Cliente borrado entretanto: se vuelve a elegir
+            }
+        }
+        review.setCliente(cliente);
     }
 }
@@ -1,9 +1,18 @@
 package com.aura.reviews.controller;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,13 +20,27 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.aura.reviews.dto.EstadoSeguimiento;
+import com.aura.reviews.dto.FiltroSegmento;
+import com.aura.reviews.dto.PaginaCursor;
+import com.aura.reviews.dto.RespuestaLote;
 import com.aura.reviews.entity.Cliente;
+import com.aura.reviews.entity.FranjaEdad;
 import com.aura.reviews.entity.Review;
 import com.aura.reviews.service.ClienteService;
+import com.aura.reviews.service.ExportacionService;
+import com.aura.reviews.service.IngestaReviewsService;
+import com.aura.reviews.service.LoteService;
 import com.aura.reviews.service.ReviewService;
+import com.aura.reviews.service.TokenCambios;
 
 import jakarta.validation.Valid;
 
@@ -26,45 +49,209 @@ import jakarta.validation.Valid;
 @RequestMapping("/api/reviews")
 public class ReviewRestController {
 
+    private static final int TAMANO_POR_DEFECTO = 20;
+    private static final int TAMANO_MAXIMO = 100;
+    private static final String VISTA_RESUMEN = "summary";
+
     @Autowired
     private ReviewService reviewService;
 
+    @Autowired
+    private ExportacionService exportacionService;
+
+    @Autowired
+    private LoteService loteService;
+
     @Autowired
     private ClienteService clienteService;
 
+    @Autowired
+    private IngestaReviewsService ingestaReviews;
+
+    @Autowired
+    private TokenCambios tokenCambios;
+
+    // Por defecto devuelve una página (?page=&size=, máximo 100) en orden de id, sin COUNT(*);
+    // si hay más, la cabecera Link indica la siguiente. Con ?after=, ?before= o
+    // ?paginacion=cursor devuelve una página por cursor (id descendente). Con ?view=summary
+    // cada review es un ReviewResumen (id, valoración, descripción recortada y nombre del cliente)
     @GetMapping
-    public ResponseEntity<List<Review>> listarTodas() {
-        return ResponseEntity.ok(reviewService.listarTodos());
+    public ResponseEntity<?> listarTodas(@RequestParam(required = false) Long after,
+                                         @RequestParam(required = false) Long before,
+                                         @RequestParam(required = false) String paginacion,
+                                         @RequestParam(required = false) String busqueda,
+                                         @RequestParam(required = false) String view,
+                                         @RequestParam(defaultValue = "0") int page,
+                                         @RequestParam(defaultValue = "" + TAMANO_POR_DEFECTO) int size,
+                                         WebRequest peticion) {
+        // Sin escrituras desde la petición anterior la página es la misma: 304 sin consultar la BD
+        String etag = CondicionesHttp.etag(tokenCambios.token(TokenCambios.Tabla.REVIEWS, TokenCambios.Tabla.CLIENTES));
+        if (peticion.checkNotModified(etag)) {
+            return null;
+        }
+        boolean resumen = VISTA_RESUMEN.equals(view);
+        if (after != null || before != null || "cursor".equals(paginacion)) {
+            PaginaCursor<?> pagina = resumen
+                    ? reviewService.listarResumenesPorCursor(busqueda, after, before, limitarTamano(size))
+                    : reviewService.listarPorCursor(busqueda, after, before, limitarTamano(size));
+            return ResponseEntity.ok(pagina);
+        }
+
+        int tamano = limitarTamano(size);
+        PageRequest pageable = PageRequest.of(Math.max(page, 0), tamano, Sort.by("id"));
+        if (resumen) {
+            return respuestaPaginada(reviewService.listarResumenesSlice(pageable), tamano);
+        }
+        return respuestaPaginada(reviewService.listarSlice(pageable), tamano);
+    }
+
+    // Reviews de un segmento: ?valoracion=4&franja=25-35&intolerancia=true&genero=...
+    // (todos opcionales). Paginado como el listado general, sin COUNT(*)
+    @GetMapping("/segmento")
+    public ResponseEntity<List<Review>> listarSegmento(@RequestParam(required = false) String genero,
+                                                       @RequestParam(required = false) String franja,
+                                                       @RequestParam(required = false) Boolean intolerancia,
+                                                       @RequestParam(required = false) Integer valoracion,
+                                                       @RequestParam(defaultValue = "0") int page,
+                                                       @RequestParam(defaultValue = "" + TAMANO_POR_DEFECTO) int size) {
+        FiltroSegmento filtro = filtroSegmento(genero, franja, intolerancia, valoracion);
+        if (filtro == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        int tamano = limitarTamano(size);
+        Slice<Review> pagina = reviewService.listarSegmento(filtro, PageRequest.of(Math.max(page, 0), tamano, Sort.by("id")));
+        return respuestaPaginada(pagina, tamano);
+    }
+
+    // Número de reviews del segmento (mismos filtros que /segmento)
+    @GetMapping("/segmento/total")
+    public ResponseEntity<Long> contarSegmento(@RequestParam(required = false) String genero,
+                                               @RequestParam(required = false) String franja,
+                                               @RequestParam(required = false) Boolean intolerancia,
+                                               @RequestParam(required = false) Integer valoracion) {
+        FiltroSegmento filtro = filtroSegmento(genero, franja, intolerancia, valoracion);
+        if (filtro == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(reviewService.contarSegmento(filtro));
+    }
+
+    // null si la franja o la valoración no son válidas
+    private static FiltroSegmento filtroSegmento(String genero, String franja, Boolean intolerancia, Integer valoracion) {
+        String etiqueta = null;
+        if (franja != null) {
+            etiqueta = FranjaEdad.deParametro(franja).orElse(null);
+            if (etiqueta == null) {
+                return null;
+            }
+        }
+        if (valoracion != null && (valoracion < 1 || valoracion > 5)) {
+            return null;
+        }
+        return new FiltroSegmento(genero, etiqueta, intolerancia, valoracion);
+    }
+
+    // Si hay más resultados, la cabecera Link indica la siguiente página
+    private static <T> ResponseEntity<List<T>> respuestaPaginada(Slice<T> pagina, int tamano) {
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok();
+        if (pagina.hasNext()) {
+            String siguiente = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("page", pagina.getNumber() + 1)
+                    .replaceQueryParam("size", tamano)
+                    .toUriString();
+            respuesta.header(HttpHeaders.LINK, "<" + siguiente + ">; rel=\"next\"");
+        }
+        return respuesta.body(pagina.getContent());
+    }
+
+    // Exportación completa en NDJSON (una entidad por línea) con memoria constante
+    @GetMapping(params = "formato=ndjson")
+    public ResponseEntity<StreamingResponseBody> exportarNdjson() {
+        StreamingResponseBody cuerpo = exportacionService::exportarReviewsNdjson;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(cuerpo);
+    }
+
+    // Exportación CSV para hojas de cálculo, leída con un cursor JDBC (memoria constante).
+    // ?busqueda= filtra igual que el buscador; ?gzip=true la comprime; ?bom=true añade BOM para Excel
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportarCsv(@RequestParam(required = false) String busqueda,
+                                                             @RequestParam(defaultValue = "false") boolean gzip,
+                                                             @RequestParam(defaultValue = "false") boolean bom) {
+        StreamingResponseBody cuerpo = salida -> exportacionService.exportarReviewsCsv(busqueda, gzip, bom, salida);
+        String fichero = "reviews.csv" + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : "text/csv;charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fichero)
+                .body(cuerpo);
     }
 
+    // Con ETag y Last-Modified: 304 si el cliente ya tiene esta versión
     @GetMapping("/{id}")
     public ResponseEntity<Review> obtenerPorId(@PathVariable Long id) {
         try {
             Review review = reviewService.buscarPorId(id);
-            return ResponseEntity.ok(review);
+            return CondicionesHttp.conValidadores(review, CondicionesHttp.etag(review), modificaciones(review));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    // Con la ingesta asíncrona activa responde 202 y la URL de seguimiento en Location
     @PostMapping
-    public ResponseEntity<Review> crear(@Valid @RequestBody Review review) {
+    public ResponseEntity<?> crear(@Valid @RequestBody Review review) throws IOException {
+        if (ingestaReviews.estaActiva()) {
+            EstadoSeguimiento estado = ingestaReviews.encolar(review);
+            URI seguimiento = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .path("/seguimiento/{id}")
+                    .buildAndExpand(estado.idSeguimiento())
+                    .toUri();
+            return ResponseEntity.accepted().location(seguimiento).body(estado);
+        }
         vincularCliente(review);
         Review guardada = reviewService.guardar(review);
         return ResponseEntity.status(HttpStatus.CREATED).body(guardada);
     }
 
+    @GetMapping("/seguimiento/{idSeguimiento}")
+    public ResponseEntity<EstadoSeguimiento> consultarSeguimiento(@PathVariable String idSeguimiento) {
+        return ResponseEntity.of(ingestaReviews.consultar(idSeguimiento));
+    }
+
     @PutMapping("/{id}")
+    // Con If-Match solo se guarda si la review (y su cliente) siguen en esa versión; si no, 412
     public ResponseEntity<Review> actualizar(@PathVariable Long id,
-                                             @Valid @RequestBody Review review) {
+                                             @Valid @RequestBody Review review,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            reviewService.buscarPorId(id);
+            Review actual = reviewService.buscarPorId(id);
+            if (!CondicionesHttp.cumpleIfMatch(ifMatch, CondicionesHttp.etag(actual))) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+            if (ifMatch != null) {
+                // Si otra petición la modifica antes de guardar, Hibernate detecta el cambio de versión
+                review.setVersion(actual.getVersion());
+            }
             review.setId(id);
             vincularCliente(review);
-            return ResponseEntity.ok(reviewService.guardar(review));
+            Review guardada = reviewService.guardar(review);
+            return CondicionesHttp.conValidadores(guardada, CondicionesHttp.etag(guardada), modificaciones(guardada));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+    }
+
+    // Alta/modificación por lotes (hasta 5000 elementos): con id se actualiza, sin id se crea.
+    // Devuelve un resultado por elemento; los inválidos no impiden guardar el resto
+    @PostMapping("/batch")
+    public ResponseEntity<RespuestaLote> guardarLote(@RequestBody List<Review> reviews) {
+        if (reviews.size() > LoteService.TAMANO_MAXIMO) {
+            return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE).build();
         }
+        return ResponseEntity.ok(loteService.guardarReviews(reviews));
     }
 
     @DeleteMapping("/{id}")
@@ -77,6 +264,12 @@ public class ReviewRestController {
         }
     }
 
+    private static LocalDateTime[] modificaciones(Review review) {
+        return new LocalDateTime[] {
+            review.getModificado(), review.getCliente() != null ? review.getCliente().getModificado() : null
+        };
+    }
+
     // Vincula la referencia de cliente (por ID) con la entidad completa
     private void vincularCliente(Review review) {
         if (review.getCliente() != null && review.getCliente().getId() != null) {
@@ -84,4 +277,8 @@ public class ReviewRestController {
             review.setCliente(cliente);
         }
     }
+
+    private int limitarTamano(int size) {
+        return Math.max(1, Math.min(size, TAMANO_MAXIMO));
+    }
 }
@@ -0,0 +1,11 @@
+package com.aura.reviews.dto;
+
+import com.aura.reviews.entity.Cliente;
+
+// Campos de Cliente que afectan a las estadísticas del panel
+public record DatosEstadisticosCliente(String genero, Integer edad, Boolean intolerancia) {
+
+    public static DatosEstadisticosCliente de(Cliente cliente) {
+        return new DatosEstadisticosCliente(cliente.getGenero(), cliente.getEdad(), cliente.getIntolerancia());
+    }
+}
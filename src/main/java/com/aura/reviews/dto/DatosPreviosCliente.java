@@ -0,0 +1,10 @@
+package com.aura.reviews.dto;
+
+// Estado guardado de un cliente antes de modificarlo, en una consulta: sus campos estadísticos
+// y la versión (para los guardados sin versión, que sobrescriben la actual)
+public record DatosPreviosCliente(String genero, Integer edad, Boolean intolerancia, Long version) {
+
+    public DatosEstadisticosCliente datosEstadisticos() {
+        return new DatosEstadisticosCliente(genero, edad, intolerancia);
+    }
+}
@@ -0,0 +1,5 @@
+package com.aura.reviews.dto;
+
+// Valoración y versión guardadas de una review antes de modificarla, en una consulta
+public record DatosPreviosReview(Integer valoracion, Long version) {
+}
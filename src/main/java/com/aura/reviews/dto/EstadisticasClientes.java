@@ -0,0 +1,9 @@
+package com.aura.reviews.dto;
+
+import java.util.Map;
+
+// Conteos de clientes para el panel de informes
+public record EstadisticasClientes(Map<String, Long> porGenero,
+                                   Map<String, Long> porFranjaEdad,
+                                   Map<String, Long> porIntolerancia) {
+}
@@ -0,0 +1,11 @@
+package com.aura.reviews.dto;
+
+import java.util.Map;
+
+// Datos de los gráficos del panel enviados por /informes/stream: totales en el evento
+// "estado" y solo lo que ha cambiado en los eventos "delta"
+public record EstadisticasPanel(Map<Integer, Long> reviewsPorEstrellas,
+                                Map<String, Long> clientesPorGenero,
+                                Map<String, Long> clientesPorEdad,
+                                Map<String, Long> clientesPorIntolerancia) {
+}
@@ -0,0 +1,21 @@
+package com.aura.reviews.dto;
+
+import java.time.Instant;
+
+// Progreso de una importación masiva (GET /api/importaciones/{id}).
+// ultimoRegistroConfirmado: punto de control; al reanudar se continúa desde el siguiente.
+public record EstadoImportacion(String id,
+                                String tipo,
+                                Estado estado,
+                                long registrosLeidos,
+                                long guardados,
+                                long rechazados,
+                                long ultimoRegistroConfirmado,
+                                String error,
+                                Instant inicio,
+                                Instant fin) {
+
+    public enum Estado {
+        EN_CURSO, COMPLETADA, FALLIDA
+    }
+}
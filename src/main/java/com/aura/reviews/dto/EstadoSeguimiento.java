@@ -0,0 +1,16 @@
+package com.aura.reviews.dto;
+
+import java.util.List;
+
+// Estado de una review aceptada por la ingesta asíncrona (GET /api/reviews/seguimiento/{id}).
+// reviewId solo cuando ya está guardada; errores solo si se rechazó al volcarla a la BD.
+public record EstadoSeguimiento(String idSeguimiento, Estado estado, Long reviewId, List<String> errores) {
+
+    public enum Estado {
+        PENDIENTE, GUARDADA, RECHAZADA
+    }
+
+    public static EstadoSeguimiento pendiente(String idSeguimiento) {
+        return new EstadoSeguimiento(idSeguimiento, Estado.PENDIENTE, null, List.of());
+    }
+}
@@ -0,0 +1,9 @@
+package com.aura.reviews.dto;
+
+// Segmento demográfico para listados y conteos filtrados; los campos null no filtran.
+// valoracion solo se aplica a reviews
+public record FiltroSegmento(String genero,
+                             String franja,
+                             Boolean intolerancia,
+                             Integer valoracion) {
+}
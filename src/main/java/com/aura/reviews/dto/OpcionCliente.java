@@ -0,0 +1,5 @@
+package com.aura.reviews.dto;
+
+// Cliente tal como aparece en las sugerencias del formulario de reviews
+public record OpcionCliente(Long id, String nombre, Integer edad, String genero) {
+}
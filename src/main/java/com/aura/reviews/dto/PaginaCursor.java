@@ -0,0 +1,42 @@
+package com.aura.reviews.dto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+// Página por cursor (keyset) ordenada por id descendente, sin COUNT(*).
+// totalEstimado es null cuando no hay una estimación barata disponible.
+public record PaginaCursor<T>(List<T> contenido,
+                              Long cursorAnterior,
+                              Long cursorSiguiente,
+                              Long totalEstimado) {
+
+    // Construye la página a partir de tamano + 1 filas leídas de la BD.
+    // haciaAtras: las filas vienen en orden ascendente (?before=) y se invierten.
+    public static <T> PaginaCursor<T> desde(List<T> filas, int tamano, boolean haciaAtras,
+                                            boolean conCursorPrevio, Function<T, Long> id,
+                                            Long totalEstimado) {
+        boolean hayMas = filas.size() > tamano;
+        List<T> contenido = new ArrayList<>(hayMas ? filas.subList(0, tamano) : filas);
+        if (haciaAtras) {
+            Collections.reverse(contenido);
+        }
+        if (contenido.isEmpty()) {
+            return new PaginaCursor<>(contenido, null, null, totalEstimado);
+        }
+
+        Long primero = id.apply(contenido.get(0));
+        Long ultimo = id.apply(contenido.get(contenido.size() - 1));
+        Long anterior;
+        Long siguiente;
+        if (haciaAtras) {
+            anterior = hayMas ? primero : null;
+            siguiente = ultimo;
+        } else {
+            anterior = conCursorPrevio ? primero : null;
+            siguiente = hayMas ? ultimo : null;
+        }
+        return new PaginaCursor<>(contenido, anterior, siguiente, totalEstimado);
+    }
+}
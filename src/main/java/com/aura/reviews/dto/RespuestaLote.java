@@ -0,0 +1,14 @@
+package com.aura.reviews.dto;
+
+import java.util.List;
+
+// Respuesta de una carga por lotes: resumen y un resultado por elemento, en el orden recibido
+public record RespuestaLote(int total, int correctos, int fallidos, List<ResultadoLote> resultados) {
+
+    public static RespuestaLote de(List<ResultadoLote> resultados) {
+        int fallidos = (int) resultados.stream()
+                .filter(r -> r.estado() == ResultadoLote.Estado.ERROR)
+                .count();
+        return new RespuestaLote(resultados.size(), resultados.size() - fallidos, fallidos, resultados);
+    }
+}
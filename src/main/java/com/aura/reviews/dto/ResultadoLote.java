@@ -0,0 +1,19 @@
+package com.aura.reviews.dto;
+
+import java.util.List;
+
+// Resultado de un elemento de una carga por lotes ('indice' = posición en la petición)
+public record ResultadoLote(int indice, Estado estado, Long id, List<String> errores) {
+
+    public enum Estado {
+        CREADO, ACTUALIZADO, ERROR
+    }
+
+    public static ResultadoLote guardado(int indice, Long id, boolean nuevo) {
+        return new ResultadoLote(indice, nuevo ? Estado.CREADO : Estado.ACTUALIZADO, id, List.of());
+    }
+
+    public static ResultadoLote error(int indice, Long id, List<String> errores) {
+        return new ResultadoLote(indice, Estado.ERROR, id, errores);
+    }
+}
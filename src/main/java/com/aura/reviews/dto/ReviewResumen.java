@@ -0,0 +1,16 @@
+package com.aura.reviews.dto;
+
+// Review tal como aparece en el listado y en /api/reviews?view=summary: cuatro columnas, sin la
+// entidad ni su cliente. La consulta lee un carácter más de la descripción para saber si recortarla
+public record ReviewResumen(Long id, Integer valoracion, String descripcion, String clienteNombre) {
+
+    public static final int LONGITUD_DESCRIPCION = 100;
+    public static final int CARACTERES_LEIDOS = LONGITUD_DESCRIPCION + 1;
+
+    // Mismo recorte que #strings.abbreviate en las plantillas
+    public ReviewResumen {
+        if (descripcion != null && descripcion.length() > LONGITUD_DESCRIPCION) {
+            descripcion = descripcion.substring(0, LONGITUD_DESCRIPCION - 3) + "...";
+        }
+    }
+}
@@ -1,23 +1,46 @@
 package com.aura.reviews.entity;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
-// Entidad Cliente - relación OneToOne con Review
+// Entidad Cliente - relación OneToOne con Review.
+// Índices para filtrar por segmento; (edad_franja, intolerancia, genero) cubre también
+// el GROUP BY de los informes sin leer la tabla
 @Entity
-@Table(name = "clientes")
+@Table(name = "clientes", indexes = {
+    @Index(name = "idx_clientes_nombre", columnList = "nombre"),
+    @Index(name = "idx_clientes_genero", columnList = "genero"),
+    @Index(name = "idx_clientes_intolerancia", columnList = "intolerancia"),
+    @Index(name = "idx_clientes_franja_intolerancia_genero", columnList = "edad_franja, intolerancia, genero")
+})
+@EntityListeners(FranjaEdadListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "clientes")
 public class Cliente {
 
     @Id
@@ -46,6 +69,22 @@ public class Cliente {
     @Column(length = 255)
     private String detalleIntolerancia;
 
+    // Derivada de la edad (FranjaEdadListener); nula solo en filas anteriores a la columna,
+    // que se rellenan al arrancar
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "edad_franja", length = 5)
+    private String edadFranja;
+
+    // Concurrencia optimista: da el ETag de la API REST y la comprobación de If-Match
+    @JsonIgnore
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    // Última modificación en UTC (cabecera Last-Modified)
+    @JsonIgnore
+    private LocalDateTime modificado;
+
     @JsonIgnore
     @OneToOne(mappedBy = "cliente", cascade = CascadeType.ALL, orphanRemoval = true)
     private Review review;
@@ -110,6 +149,14 @@ public class Cliente {
         this.detalleIntolerancia = detalleIntolerancia;
     }
 
+    public String getEdadFranja() {
+        return edadFranja;
+    }
+
+    void setEdadFranja(String edadFranja) {
+        this.edadFranja = edadFranja;
+    }
+
     public Review getReview() {
         return review;
     }
@@ -117,4 +164,22 @@ public class Cliente {
     public void setReview(Review review) {
         this.review = review;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getModificado() {
+        return modificado;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void marcarModificado() {
+        modificado = LocalDateTime.now(ZoneOffset.UTC);
+    }
 }
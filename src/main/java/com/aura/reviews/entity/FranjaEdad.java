@@ -0,0 +1,38 @@
+package com.aura.reviews.entity;
+
+import java.util.List;
+import java.util.Optional;
+
+// Franjas de edad usadas en informes: 0-15, 15-24, 25-35, 36-50, 51-65, 66+
+public final class FranjaEdad {
+
+    public static final List<String> ETIQUETAS = List.of("0-15", "15-24", "25-35", "36-50", "51-65", "66+");
+
+    private FranjaEdad() {
+    }
+
+    // Debe coincidir con el CASE de ClienteRepository
+    public static String calcular(int edad) {
+        if (edad <= 15) {
+            return "0-15";
+        } else if (edad <= 24) {
+            return "15-24";
+        } else if (edad <= 35) {
+            return "25-35";
+        } else if (edad <= 50) {
+            return "36-50";
+        } else if (edad <= 65) {
+            return "51-65";
+        }
+        return "66+";
+    }
+
+    // Etiqueta desde un parámetro de URL; un "+" sin codificar llega como espacio ("66 ")
+    public static Optional<String> deParametro(String valor) {
+        String etiqueta = valor.trim();
+        if (etiqueta.equals("66")) {
+            etiqueta = "66+";
+        }
+        return ETIQUETAS.contains(etiqueta) ? Optional.of(etiqueta) : Optional.empty();
+    }
+}
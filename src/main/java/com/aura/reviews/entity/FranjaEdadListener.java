@@ -0,0 +1,16 @@
+package com.aura.reviews.entity;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+// Mantiene edad_franja sincronizada con la edad en cada alta o modificación
+public class FranjaEdadListener {
+
+    @PrePersist
+    @PreUpdate
+    public void actualizarFranja(Cliente cliente) {
+        if (cliente.getEdad() != null) {
+            cliente.setEdadFranja(FranjaEdad.calcular(cliente.getEdad()));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.aura.reviews.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Punto de control de una importación masiva. Se actualiza en la misma transacción que el
+// bloque que confirma: tras una caída, al reanudar no se vuelve a insertar ningún registro
+@Entity
+@Table(name = "importaciones")
+public class ProgresoImportacion {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    private long checkpoint;
+
+    @Column(nullable = false)
+    private long guardados;
+
+    @Column(nullable = false)
+    private long rechazados;
+
+    // Tamaño del fichero de rechazados al confirmar; al reanudar se recorta a este tamaño
+    @Column(name = "bytes_rechazados", nullable = false)
+    private long bytesRechazados;
+
+    public ProgresoImportacion() {
+        super();
+    }
+
+    public ProgresoImportacion(String id, long checkpoint, long guardados, long rechazados, long bytesRechazados) {
+        this.id = id;
+        this.checkpoint = checkpoint;
+        this.guardados = guardados;
+        this.rechazados = rechazados;
+        this.bytesRechazados = bytesRechazados;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getCheckpoint() {
+        return checkpoint;
+    }
+
+    public long getGuardados() {
+        return guardados;
+    }
+
+    public long getRechazados() {
+        return rechazados;
+    }
+
+    public long getBytesRechazados() {
+        return bytesRechazados;
+    }
+}
@@ -1,14 +1,27 @@
 package com.aura.reviews.entity;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -17,7 +30,12 @@ import jakarta.validation.constraints.Size;
 
 // Entidad Review - relación OneToOne con Cliente
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+    // Filtro por estrellas + join con clientes resuelto solo con índices
+    @Index(name = "idx_reviews_valoracion_cliente", columnList = "valoracion, cliente_id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "reviews")
 public class Review {
 
     @Id
@@ -39,6 +57,22 @@ public class Review {
     @JoinColumn(name = "cliente_id", unique = true)
     private Cliente cliente;
 
+    // Id devuelto al aceptar la review en la ingesta asíncrona (202). Único: al reaplicar el
+    // diario tras un reinicio, las reviews que ya tienen fila en BD no se insertan otra vez
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "id_seguimiento", length = 36, unique = true, updatable = false)
+    private String idSeguimiento;
+
+    // Concurrencia optimista: da el ETag de la API REST y la comprobación de If-Match
+    @JsonIgnore
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    // Última modificación en UTC (cabecera Last-Modified)
+    @JsonIgnore
+    private LocalDateTime modificado;
+
     public Review() {
         super();
     }
@@ -80,4 +114,30 @@ public class Review {
     public void setCliente(Cliente cliente) {
         this.cliente = cliente;
     }
+
+    public String getIdSeguimiento() {
+        return idSeguimiento;
+    }
+
+    public void setIdSeguimiento(String idSeguimiento) {
+        this.idSeguimiento = idSeguimiento;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getModificado() {
+        return modificado;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void marcarModificado() {
+        modificado = LocalDateTime.now(ZoneOffset.UTC);
+    }
 }
@@ -0,0 +1,43 @@
+package com.aura.reviews.entity;
+
+import java.util.List;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Alta de la ingesta asíncrona rechazada al volcarla a la BD. Se guarda para que el
+// seguimiento siga respondiendo RECHAZADA después de un reinicio
+@Entity
+@Table(name = "reviews_rechazadas")
+public class ReviewRechazada {
+
+    private static final int LONGITUD_ERRORES = 2000;
+
+    @Id
+    @Column(name = "id_seguimiento", length = 36)
+    private String idSeguimiento;
+
+    // Un error por línea
+    @Column(nullable = false, length = LONGITUD_ERRORES)
+    private String errores;
+
+    public ReviewRechazada() {
+        super();
+    }
+
+    public ReviewRechazada(String idSeguimiento, List<String> errores) {
+        this.idSeguimiento = idSeguimiento;
+        String unidos = String.join("\n", errores);
+        this.errores = unidos.length() > LONGITUD_ERRORES ? unidos.substring(0, LONGITUD_ERRORES) : unidos;
+    }
+
+    public String getIdSeguimiento() {
+        return idSeguimiento;
+    }
+
+    public List<String> getErrores() {
+        return errores.lines().toList();
+    }
+}
@@ -1,23 +1,140 @@
 package com.aura.reviews.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.aura.reviews.dto.DatosPreviosCliente;
+import com.aura.reviews.dto.OpcionCliente;
 import com.aura.reviews.entity.Cliente;
 
+import jakarta.persistence.QueryHint;
+
 // Repositorio CRUD para Cliente
 @Repository
-public interface ClienteRepository extends JpaRepository<Cliente, Long> {
+public interface ClienteRepository extends JpaRepository<Cliente, Long>, JpaSpecificationExecutor<Cliente> {
+
+    // Mismos límites que FranjaEdad.calcular (relleno de edad_franja en filas antiguas)
+    String FRANJA_EDAD = "CASE WHEN c.edad <= 15 THEN '0-15' " +
+                         "WHEN c.edad <= 24 THEN '15-24' " +
+                         "WHEN c.edad <= 35 THEN '25-35' " +
+                         "WHEN c.edad <= 50 THEN '36-50' " +
+                         "WHEN c.edad <= 65 THEN '51-65' " +
+                         "ELSE '66+' END";
     
-    // Busca clientes por nombre o género
-    @Query("SELECT c FROM Cliente c WHERE " +
-           "LOWER(c.nombre) LIKE LOWER(CONCAT('%', :busqueda, '%')) OR " +
-           "LOWER(c.genero) LIKE LOWER(CONCAT('%', :busqueda, '%'))")
+    // Busca clientes por nombre o género (review inversa en el mismo JOIN, count aparte)
+    @EntityGraph(attributePaths = "review")
+    @Query(value = "SELECT c FROM Cliente c WHERE " +
+                   "LOWER(c.nombre) LIKE LOWER(CONCAT('%', :busqueda, '%')) OR " +
+                   "LOWER(c.genero) LIKE LOWER(CONCAT('%', :busqueda, '%'))",
+           countQuery = "SELECT COUNT(c) FROM Cliente c WHERE " +
+                        "LOWER(c.nombre) LIKE LOWER(CONCAT('%', :busqueda, '%')) OR " +
+                        "LOWER(c.genero) LIKE LOWER(CONCAT('%', :busqueda, '%'))")
     Page<Cliente> buscarPorTermino(@Param("busqueda") String busqueda, Pageable pageable);
     
+    // El OneToOne inverso no puede ser lazy: se trae en el JOIN para evitar N+1
+    @EntityGraph(attributePaths = "review")
+    @Query(value = "SELECT c FROM Cliente c",
+           countQuery = "SELECT COUNT(c) FROM Cliente c")
     Page<Cliente> findAll(Pageable pageable);
+
+    // Página sin COUNT(*) para la API REST (Slice sabe si hay siguiente leyendo una fila más)
+    @EntityGraph(attributePaths = "review")
+    @Query("SELECT c FROM Cliente c")
+    Slice<Cliente> buscarSlice(Pageable pageable);
+
+    // Recorrido completo en streaming: fetch size acotado y entidades de solo lectura
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Cliente c LEFT JOIN FETCH c.review ORDER BY c.id")
+    Stream<Cliente> streamTodos();
+
+    // Typeahead del formulario de reviews: clientes sin review cuyo nombre empieza por el
+    // patrón ('texto%', con ! como escape). Rango sobre idx_clientes_nombre, ya ordenado
+    @Query("SELECT new com.aura.reviews.dto.OpcionCliente(c.id, c.nombre, c.edad, c.genero) " +
+           "FROM Cliente c WHERE c.nombre LIKE :patron ESCAPE '!' " +
+           "AND NOT EXISTS (SELECT r.id FROM Review r WHERE r.cliente = c) " +
+           "ORDER BY c.nombre, c.id")
+    List<OpcionCliente> buscarSugerenciasSinReview(@Param("patron") String patron, Limit limit);
+
+    // Datos para cargar el índice de búsqueda en memoria
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT c.id, c.nombre, c.genero FROM Cliente c")
+    Stream<Object[]> streamNombresYGeneros();
+
+    // Cuáles de estos ids siguen existiendo
+    @Query("SELECT c.id FROM Cliente c WHERE c.id IN :ids")
+    List<Long> buscarIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    // Página de resultados del índice: clientes por id con su review en el mismo JOIN
+    @EntityGraph(attributePaths = "review")
+    @Query("SELECT c FROM Cliente c WHERE c.id IN :ids")
+    List<Cliente> buscarPorIds(@Param("ids") Collection<Long> ids);
+
+    // Paginación por cursor: WHERE id < :cursor ORDER BY id DESC LIMIT n
+    @EntityGraph(attributePaths = "review")
+    @Query("SELECT c FROM Cliente c WHERE c.id < :cursor ORDER BY c.id DESC")
+    List<Cliente> buscarAnterioresA(@Param("cursor") Long cursor, Limit limit);
+
+    // Página previa por cursor (orden ascendente, se invierte en el servicio)
+    @EntityGraph(attributePaths = "review")
+    @Query("SELECT c FROM Cliente c WHERE c.id > :cursor ORDER BY c.id ASC")
+    List<Cliente> buscarPosterioresA(@Param("cursor") Long cursor, Limit limit);
+
+    @EntityGraph(attributePaths = "review")
+    @Query("SELECT c FROM Cliente c WHERE c.id < :cursor AND (" +
+           "LOWER(c.nombre) LIKE LOWER(CONCAT('%', :busqueda, '%')) OR " +
+           "LOWER(c.genero) LIKE LOWER(CONCAT('%', :busqueda, '%'))) ORDER BY c.id DESC")
+    List<Cliente> buscarPorTerminoAnterioresA(@Param("busqueda") String busqueda,
+                                              @Param("cursor") Long cursor, Limit limit);
+
+    @EntityGraph(attributePaths = "review")
+    @Query("SELECT c FROM Cliente c WHERE c.id > :cursor AND (" +
+           "LOWER(c.nombre) LIKE LOWER(CONCAT('%', :busqueda, '%')) OR " +
+           "LOWER(c.genero) LIKE LOWER(CONCAT('%', :busqueda, '%'))) ORDER BY c.id ASC")
+    List<Cliente> buscarPorTerminoPosterioresA(@Param("busqueda") String busqueda,
+                                               @Param("cursor") Long cursor, Limit limit);
+
+    // Conteo agrupado por género, franja de edad e intolerancia en una sola consulta
+    // (columnas del índice idx_clientes_franja_intolerancia_genero)
+    @Query("SELECT c.genero, c.edadFranja, c.intolerancia, COUNT(c) FROM Cliente c " +
+           "GROUP BY c.genero, c.edadFranja, c.intolerancia")
+    List<Object[]> contarPorGeneroFranjaEdadEIntolerancia();
+
+    // Calcula edad_franja en las filas creadas antes de existir la columna
+    @Transactional
+    @Modifying
+    @Query("UPDATE Cliente c SET c.edadFranja = " + FRANJA_EDAD + " WHERE c.edadFranja IS NULL")
+    int rellenarFranjaEdad();
+
+    // Cargas por lotes: valores estadísticos actuales (id, género, edad, intolerancia)
+    @Query("SELECT c.id, c.genero, c.edad, c.intolerancia FROM Cliente c WHERE c.id IN :ids")
+    List<Object[]> buscarDatosEstadisticosPorIds(@Param("ids") Collection<Long> ids);
+
+    // Cargas por lotes: existencia de cada cliente y id de su review (null si no tiene)
+    @Query("SELECT c.id, r.id FROM Cliente c LEFT JOIN c.review r WHERE c.id IN :ids")
+    List<Object[]> buscarIdsDeReview(@Param("ids") Collection<Long> ids);
+
+    // Campos estadísticos y versión actuales, sin cargar la entidad
+    @Query("SELECT new com.aura.reviews.dto.DatosPreviosCliente(c.genero, c.edad, c.intolerancia, c.version) " +
+           "FROM Cliente c WHERE c.id = :id")
+    Optional<DatosPreviosCliente> buscarDatosPrevios(@Param("id") Long id);
 }
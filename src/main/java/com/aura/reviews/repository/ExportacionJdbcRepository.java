@@ -0,0 +1,67 @@
+package com.aura.reviews.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+// Lecturas para exportaciones masivas: cursor JDBC de solo avance, fila a fila, sin entidades.
+// Los filtros son los mismos que buscarPorTermino de ClienteRepository y ReviewRepository.
+@Repository
+public class ExportacionJdbcRepository {
+
+    // Filas que el driver trae por viaje (en MySQL requiere useCursorFetch=true en la URL)
+    private static final int TAMANO_FETCH = 1000;
+
+    private static final String CLIENTES =
+            "SELECT c.id, c.nombre, c.edad, c.genero, c.intolerancia, c.detalle_intolerancia, " +
+            "r.id, r.valoracion " +
+            "FROM clientes c LEFT JOIN reviews r ON r.cliente_id = c.id";
+    private static final String FILTRO_CLIENTES =
+            " WHERE LOWER(c.nombre) LIKE CONCAT('%', LOWER(?), '%') OR LOWER(c.genero) LIKE CONCAT('%', LOWER(?), '%')";
+
+    // LEFT JOIN: las reviews sin cliente también se exportan, con las columnas del cliente vacías
+    private static final String REVIEWS =
+            "SELECT r.id, r.descripcion, r.valoracion, c.id, c.nombre, c.edad, c.genero " +
+            "FROM reviews r LEFT JOIN clientes c ON c.id = r.cliente_id";
+    private static final String FILTRO_REVIEWS =
+            " WHERE LOWER(r.descripcion) LIKE CONCAT('%', LOWER(?), '%')";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Columnas: id, nombre, edad, genero, intolerancia, detalle_intolerancia, review_id, review_valoracion
+    public void recorrerClientes(String busqueda, RowCallbackHandler fila) {
+        boolean filtrar = busqueda != null && !busqueda.isBlank();
+        if (filtrar) {
+            recorrer(CLIENTES + FILTRO_CLIENTES + " ORDER BY c.id", fila, busqueda, busqueda);
+        } else {
+            recorrer(CLIENTES + " ORDER BY c.id", fila);
+        }
+    }
+
+    // Columnas: id, descripcion, valoracion, cliente_id, cliente_nombre, cliente_edad, cliente_genero
+    public void recorrerReviews(String busqueda, RowCallbackHandler fila) {
+        boolean filtrar = busqueda != null && !busqueda.isBlank();
+        if (filtrar) {
+            recorrer(REVIEWS + FILTRO_REVIEWS + " ORDER BY r.id", fila, busqueda);
+        } else {
+            recorrer(REVIEWS + " ORDER BY r.id", fila);
+        }
+    }
+
+    private void recorrer(String sql, RowCallbackHandler fila, String... parametros) {
+        jdbcTemplate.query(conexion -> {
+            PreparedStatement sentencia = conexion.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            sentencia.setFetchSize(TAMANO_FETCH);
+            for (int i = 0; i < parametros.length; i++) {
+                sentencia.setString(i + 1, parametros[i]);
+            }
+            return sentencia;
+        }, fila);
+    }
+}
@@ -0,0 +1,52 @@
+package com.aura.reviews.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.aura.reviews.dto.FiltroSegmento;
+import com.aura.reviews.entity.Cliente;
+import com.aura.reviews.entity.Review;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+
+// Consultas por segmento con solo las condiciones informadas (sin "OR :param IS NULL",
+// que impide a la BD usar los índices de clientes y reviews)
+public final class FiltrosSegmento {
+
+    private FiltrosSegmento() {
+    }
+
+    public static Specification<Cliente> clientes(FiltroSegmento filtro) {
+        return (cliente, consulta, cb) -> cb.and(condicionesCliente(filtro, cliente, cb).toArray(Predicate[]::new));
+    }
+
+    public static Specification<Review> reviews(FiltroSegmento filtro) {
+        return (review, consulta, cb) -> {
+            Join<Review, Cliente> cliente = review.join("cliente");
+            List<Predicate> condiciones = condicionesCliente(filtro, cliente, cb);
+            if (filtro.valoracion() != null) {
+                condiciones.add(cb.equal(review.get("valoracion"), filtro.valoracion()));
+            }
+            return cb.and(condiciones.toArray(Predicate[]::new));
+        };
+    }
+
+    private static List<Predicate> condicionesCliente(FiltroSegmento filtro, From<?, Cliente> cliente, CriteriaBuilder cb) {
+        List<Predicate> condiciones = new ArrayList<>();
+        if (filtro.genero() != null) {
+            condiciones.add(cb.equal(cliente.get("genero"), filtro.genero()));
+        }
+        if (filtro.franja() != null) {
+            condiciones.add(cb.equal(cliente.get("edadFranja"), filtro.franja()));
+        }
+        if (filtro.intolerancia() != null) {
+            condiciones.add(cb.equal(cliente.get("intolerancia"), filtro.intolerancia()));
+        }
+        return condiciones;
+    }
+}
@@ -0,0 +1,123 @@
+package com.aura.reviews.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import com.aura.reviews.entity.Cliente;
+import com.aura.reviews.entity.FranjaEdad;
+import com.aura.reviews.entity.Review;
+
+// Escrituras por lotes con JDBC batching (cargas masivas de la API /batch).
+// Con IDENTITY Hibernate no agrupa los INSERT; aquí se envían en un único batch
+// y los ids generados se recogen con getGeneratedKeys.
+@Repository
+public class LoteJdbcRepository {
+
+    private static final String INSERTAR_CLIENTE =
+            "INSERT INTO clientes (nombre, edad, genero, intolerancia, detalle_intolerancia, edad_franja, " +
+            "modificado, version) VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String ACTUALIZAR_CLIENTE =
+            "UPDATE clientes SET nombre = ?, edad = ?, genero = ?, intolerancia = ?, detalle_intolerancia = ?, " +
+            "edad_franja = ?, modificado = ?, version = version + 1 WHERE id = ?";
+    private static final String INSERTAR_REVIEW =
+            "INSERT INTO reviews (descripcion, valoracion, cliente_id, modificado, version, id_seguimiento) " +
+            "VALUES (?, ?, ?, ?, 0, ?)";
+    private static final String ACTUALIZAR_REVIEW =
+            "UPDATE reviews SET descripcion = ?, valoracion = ?, cliente_id = ?, modificado = ?, " +
+            "version = version + 1 WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Ids generados, en el mismo orden que 'clientes'
+    public List<Long> insertarClientes(List<Cliente> clientes) {
+        return insertar(INSERTAR_CLIENTE, clientes, LoteJdbcRepository::asignarCliente);
+    }
+
+    public void actualizarClientes(List<Cliente> clientes) {
+        jdbcTemplate.batchUpdate(ACTUALIZAR_CLIENTE, clientes, clientes.size(), (ps, cliente) -> {
+            asignarCliente(ps, cliente);
+            ps.setLong(8, cliente.getId());
+        });
+    }
+
+    // Ids generados, en el mismo orden que 'reviews'
+    public List<Long> insertarReviews(List<Review> reviews) {
+        return insertar(INSERTAR_REVIEW, reviews, (ps, review) -> {
+            asignarReview(ps, review);
+            // Solo en altas: el id de seguimiento de la ingesta asíncrona no cambia después
+            ps.setString(5, review.getIdSeguimiento());
+        });
+    }
+
+    public void actualizarReviews(List<Review> reviews) {
+        jdbcTemplate.batchUpdate(ACTUALIZAR_REVIEW, reviews, reviews.size(), (ps, review) -> {
+            asignarReview(ps, review);
+            ps.setLong(5, review.getId());
+        });
+    }
+
+    private <T> List<Long> insertar(String sql, List<T> filas, ParameterizedPreparedStatementSetter<T> asignar) {
+        if (filas.isEmpty()) {
+            return List.of();
+        }
+        KeyHolder claves = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(sql, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        asignar.setValues(ps, filas.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return filas.size();
+                    }
+                }, claves);
+        return claves.getKeyList().stream()
+                .map(Map::values)
+                .map(valores -> ((Number) valores.iterator().next()).longValue())
+                .toList();
+    }
+
+    private static void asignarCliente(PreparedStatement ps, Cliente cliente) throws SQLException {
+        ps.setString(1, cliente.getNombre());
+        ps.setInt(2, cliente.getEdad());
+        ps.setString(3, cliente.getGenero());
+        ps.setBoolean(4, Boolean.TRUE.equals(cliente.getIntolerancia()));
+        ps.setString(5, cliente.getDetalleIntolerancia());
+        // Sin entidad gestionada no hay FranjaEdadListener: se calcula aquí
+        ps.setString(6, FranjaEdad.calcular(cliente.getEdad()));
+        ps.setTimestamp(7, ahora());
+    }
+
+    private static void asignarReview(PreparedStatement ps, Review review) throws SQLException {
+        ps.setString(1, review.getDescripcion());
+        ps.setInt(2, review.getValoracion());
+        if (review.getCliente() != null) {
+            ps.setLong(3, review.getCliente().getId());
+        } else {
+            ps.setNull(3, Types.BIGINT);
+        }
+        ps.setTimestamp(4, ahora());
+    }
+
+    // Mismo valor que el @PrePersist/@PreUpdate de las entidades (UTC)
+    private static Timestamp ahora() {
+        return Timestamp.valueOf(LocalDateTime.now(ZoneOffset.UTC));
+    }
+}
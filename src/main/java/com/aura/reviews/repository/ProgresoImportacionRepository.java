@@ -0,0 +1,11 @@
+package com.aura.reviews.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.aura.reviews.entity.ProgresoImportacion;
+
+// Puntos de control de las importaciones masivas
+@Repository
+public interface ProgresoImportacionRepository extends JpaRepository<ProgresoImportacion, String> {
+}
@@ -0,0 +1,11 @@
+package com.aura.reviews.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.aura.reviews.entity.ReviewRechazada;
+
+// Altas de la ingesta asíncrona rechazadas al volcarlas, por id de seguimiento
+@Repository
+public interface ReviewRechazadaRepository extends JpaRepository<ReviewRechazada, String> {
+}
@@ -1,28 +1,162 @@
 package com.aura.reviews.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.aura.reviews.dto.DatosPreviosReview;
+import com.aura.reviews.dto.ReviewResumen;
 import com.aura.reviews.entity.Review;
 
+import jakarta.persistence.QueryHint;
+
 // Repositorio CRUD para Review
 @Repository
-public interface ReviewRepository extends JpaRepository<Review, Long> {
+public interface ReviewRepository extends JpaRepository<Review, Long>, JpaSpecificationExecutor<Review> {
     
-    // Búsqueda parcial por descripción
-    @Query("SELECT r FROM Review r WHERE " +
-           "LOWER(r.descripcion) LIKE LOWER(CONCAT('%', :busqueda, '%'))")
+    // Búsqueda parcial por descripción (cliente en el mismo JOIN, count aparte)
+    @EntityGraph(attributePaths = "cliente")
+    @Query(value = "SELECT r FROM Review r WHERE " +
+                   "LOWER(r.descripcion) LIKE LOWER(CONCAT('%', :busqueda, '%'))",
+           countQuery = "SELECT COUNT(r) FROM Review r WHERE " +
+                        "LOWER(r.descripcion) LIKE LOWER(CONCAT('%', :busqueda, '%'))")
     Page<Review> buscarPorTermino(@Param("busqueda") String busqueda, Pageable pageable);
     
+    // Página de reviews con su cliente en el mismo JOIN
+    @EntityGraph(attributePaths = "cliente")
+    @Query(value = "SELECT r FROM Review r",
+           countQuery = "SELECT COUNT(r) FROM Review r")
     Page<Review> findAll(Pageable pageable);
+
+    // Página sin COUNT(*) para la API REST (Slice sabe si hay siguiente leyendo una fila más)
+    @EntityGraph(attributePaths = "cliente")
+    @Query("SELECT r FROM Review r")
+    Slice<Review> buscarSlice(Pageable pageable);
+
+    // Resúmenes (listado y ?view=summary): cuatro columnas en un LEFT JOIN, sin entidades en el
+    // contexto de persistencia y con la descripción ya recortada en la BD
+    String RESUMEN = "SELECT new com.aura.reviews.dto.ReviewResumen(r.id, r.valoracion, " +
+                     "SUBSTRING(r.descripcion, 1, " + ReviewResumen.CARACTERES_LEIDOS + "), c.nombre) " +
+                     "FROM Review r LEFT JOIN r.cliente c";
+    String CON_TERMINO = "LOWER(r.descripcion) LIKE LOWER(CONCAT('%', :busqueda, '%'))";
+
+    @Query(value = RESUMEN, countQuery = "SELECT COUNT(r) FROM Review r")
+    Page<ReviewResumen> buscarResumenes(Pageable pageable);
+
+    @Query(value = RESUMEN + " WHERE " + CON_TERMINO,
+           countQuery = "SELECT COUNT(r) FROM Review r WHERE " + CON_TERMINO)
+    Page<ReviewResumen> buscarResumenesPorTermino(@Param("busqueda") String busqueda, Pageable pageable);
+
+    @Query(RESUMEN)
+    Slice<ReviewResumen> buscarResumenesSlice(Pageable pageable);
+
+    @Query(RESUMEN + " WHERE r.id IN :ids")
+    List<ReviewResumen> buscarResumenesPorIds(@Param("ids") Collection<Long> ids);
+
+    @Query(RESUMEN + " WHERE r.id < :cursor ORDER BY r.id DESC")
+    List<ReviewResumen> buscarResumenesAnterioresA(@Param("cursor") Long cursor, Limit limit);
+
+    @Query(RESUMEN + " WHERE r.id > :cursor ORDER BY r.id ASC")
+    List<ReviewResumen> buscarResumenesPosterioresA(@Param("cursor") Long cursor, Limit limit);
+
+    @Query(RESUMEN + " WHERE r.id < :cursor AND " + CON_TERMINO + " ORDER BY r.id DESC")
+    List<ReviewResumen> buscarResumenesPorTerminoAnterioresA(@Param("busqueda") String busqueda,
+                                                             @Param("cursor") Long cursor, Limit limit);
+
+    @Query(RESUMEN + " WHERE r.id > :cursor AND " + CON_TERMINO + " ORDER BY r.id ASC")
+    List<ReviewResumen> buscarResumenesPorTerminoPosterioresA(@Param("busqueda") String busqueda,
+                                                              @Param("cursor") Long cursor, Limit limit);
+
+    // Recorrido completo en streaming: fetch size acotado y entidades de solo lectura
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM Review r LEFT JOIN FETCH r.cliente ORDER BY r.id")
+    Stream<Review> streamTodos();
+
+    // Ids y descripciones para cargar el índice de búsqueda en memoria
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT r.id, r.descripcion FROM Review r")
+    Stream<Object[]> streamTextos();
+
+    // Cuáles de estos ids siguen existiendo
+    @Query("SELECT r.id FROM Review r WHERE r.id IN :ids")
+    List<Long> buscarIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    // Página de resultados del índice: reviews por id con su cliente en el mismo JOIN
+    @EntityGraph(attributePaths = "cliente")
+    @Query("SELECT r FROM Review r WHERE r.id IN :ids")
+    List<Review> buscarPorIds(@Param("ids") Collection<Long> ids);
+
+    // Paginación por cursor: WHERE id < :cursor ORDER BY id DESC LIMIT n
+    @EntityGraph(attributePaths = "cliente")
+    @Query("SELECT r FROM Review r WHERE r.id < :cursor ORDER BY r.id DESC")
+    List<Review> buscarAnterioresA(@Param("cursor") Long cursor, Limit limit);
+
+    // Página previa por cursor (orden ascendente, se invierte en el servicio)
+    @EntityGraph(attributePaths = "cliente")
+    @Query("SELECT r FROM Review r WHERE r.id > :cursor ORDER BY r.id ASC")
+    List<Review> buscarPosterioresA(@Param("cursor") Long cursor, Limit limit);
+
+    @EntityGraph(attributePaths = "cliente")
+    @Query("SELECT r FROM Review r WHERE r.id < :cursor AND " +
+           "LOWER(r.descripcion) LIKE LOWER(CONCAT('%', :busqueda, '%')) ORDER BY r.id DESC")
+    List<Review> buscarPorTerminoAnterioresA(@Param("busqueda") String busqueda,
+                                             @Param("cursor") Long cursor, Limit limit);
+
+    @EntityGraph(attributePaths = "cliente")
+    @Query("SELECT r FROM Review r WHERE r.id > :cursor AND " +
+           "LOWER(r.descripcion) LIKE LOWER(CONCAT('%', :busqueda, '%')) ORDER BY r.id ASC")
+    List<Review> buscarPorTerminoPosterioresA(@Param("busqueda") String busqueda,
+                                              @Param("cursor") Long cursor, Limit limit);
     
-    // Cuenta reviews agrupadas por valoración (1-5)
-    @Query("SELECT r.valoracion, COUNT(r) FROM Review r GROUP BY r.valoracion ORDER BY r.valoracion")
+    String CONTAR_POR_VALORACION =
+            "SELECT r.valoracion, COUNT(r) FROM Review r GROUP BY r.valoracion ORDER BY r.valoracion";
+
+    // Cuenta reviews agrupadas por valoración (1-5), en la caché de consultas
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "consultas-valoraciones")
+    })
+    @Query(CONTAR_POR_VALORACION)
     List<Object[]> contarPorValoracion();
+
+    // Igual pero leyendo siempre de la BD (reconciliación); refresca la caché de consultas
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "consultas-valoraciones"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "REFRESH")
+    })
+    @Query(CONTAR_POR_VALORACION)
+    List<Object[]> contarPorValoracionDesdeBd();
+
+    // Cargas por lotes: valoración y cliente actuales (id, valoración, id cliente)
+    @Query("SELECT r.id, r.valoracion, c.id FROM Review r LEFT JOIN r.cliente c WHERE r.id IN :ids")
+    List<Object[]> buscarDatosPorIds(@Param("ids") Collection<Long> ids);
+
+    // Valoración y versión actuales, sin cargar la entidad
+    @Query("SELECT new com.aura.reviews.dto.DatosPreviosReview(r.valoracion, r.version) FROM Review r WHERE r.id = :id")
+    Optional<DatosPreviosReview> buscarDatosPrevios(@Param("id") Long id);
+
+    // Ingesta asíncrona: ids de seguimiento que ya tienen review (reaplicación idempotente)
+    @Query("SELECT r.idSeguimiento FROM Review r WHERE r.idSeguimiento IN :ids")
+    List<String> buscarIdsSeguimientoExistentes(@Param("ids") Collection<String> ids);
+
+    @Query("SELECT r.id FROM Review r WHERE r.idSeguimiento = :idSeguimiento")
+    Optional<Long> buscarIdPorIdSeguimiento(@Param("idSeguimiento") String idSeguimiento);
 }
@@ -1,49 +1,210 @@
 package com.aura.reviews.service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.aura.reviews.dto.DatosEstadisticosCliente;
+import com.aura.reviews.dto.DatosPreviosCliente;
+import com.aura.reviews.dto.FiltroSegmento;
+import com.aura.reviews.dto.OpcionCliente;
+import com.aura.reviews.dto.PaginaCursor;
 import com.aura.reviews.entity.Cliente;
+import com.aura.reviews.entity.Review;
 import com.aura.reviews.repository.ClienteRepository;
+import com.aura.reviews.repository.FiltrosSegmento;
 
-// Servicio CRUD para Cliente
+import io.micrometer.core.annotation.Timed;
+
+// Servicio CRUD para Cliente. Las lecturas son transacciones de solo lectura: Hibernate no
+// guarda la copia para el dirty checking ni hace flush, y la conexión se marca read-only
 @Service
+@Timed(value = "aura.servicio", histogram = true)
+@Transactional(readOnly = true)
 public class ClienteService {
 
     @Autowired
     private ClienteRepository clienteRepository;
 
+    @Autowired
+    private EstadisticasCache estadisticasCache;
+
+    @Autowired
+    private IndiceBusquedaReviews indiceBusquedaReviews;
+
+    @Autowired
+    private IndiceBusquedaClientes indiceBusqueda;
+
+    @Autowired
+    private TokenCambios tokenCambios;
+
     public List<Cliente> listarTodos() {
         return clienteRepository.findAll();
     }
     
+    // Sugerencias del formulario de reviews: hasta 'maximo' clientes sin review (la relación es
+    // 1:1) cuyo nombre empieza por 'prefijo'. Con la collation _ci de MySQL no distingue mayúsculas
+    public List<OpcionCliente> sugerirSinReview(String prefijo, int maximo) {
+        String texto = prefijo == null ? "" : prefijo.trim();
+        if (texto.isEmpty()) {
+            return List.of();
+        }
+        String patron = texto.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+        return clienteRepository.buscarSugerenciasSinReview(patron, Limit.of(maximo));
+    }
+
     public Page<Cliente> listarPaginado(Pageable pageable) {
         return clienteRepository.findAll(pageable);
     }
+
+    // Página sin recuento total (API REST)
+    public Slice<Cliente> listarSlice(Pageable pageable) {
+        return clienteRepository.buscarSlice(pageable);
+    }
     
     public Page<Cliente> buscar(String busqueda, Pageable pageable) {
         if (busqueda == null || busqueda.trim().isEmpty()) {
             return clienteRepository.findAll(pageable);
         }
-        return clienteRepository.buscarPorTermino(busqueda.trim(), pageable);
+        String termino = busqueda.trim();
+        if (!indiceBusqueda.estaListo()) {
+            return clienteRepository.buscarPorTermino(termino, pageable);
+        }
+
+        // Ids del índice (ascendentes); la página se carga por clave primaria
+        List<Long> ids = indiceBusqueda.buscar(termino);
+        Sort.Order orden = pageable.getSort().getOrderFor("id");
+        if (orden == null || orden.isDescending()) {
+            ids = ids.reversed();
+        }
+        int desde = (int) Math.min(pageable.getOffset(), ids.size());
+        int hasta = Math.min(desde + pageable.getPageSize(), ids.size());
+        return new PageImpl<>(cargarEnOrden(ids.subList(desde, hasta)), pageable, ids.size());
+    }
+
+    // Paginación por cursor (id descendente): después de 'despuesDe' o antes de 'antesDe'
+    public PaginaCursor<Cliente> listarPorCursor(String busqueda, Long despuesDe, Long antesDe, int tamano) {
+        boolean conBusqueda = busqueda != null && !busqueda.trim().isEmpty();
+        String termino = conBusqueda ? busqueda.trim() : null;
+        Limit limite = Limit.of(tamano + 1);
+        boolean haciaAtras = antesDe != null;
+
+        List<Long> coincidencias = conBusqueda && indiceBusqueda.estaListo()
+                ? indiceBusqueda.buscar(termino)
+                : null;
+
+        List<Cliente> filas;
+        if (coincidencias != null) {
+            filas = cargarEnOrden(idsPorCursor(coincidencias, despuesDe, antesDe, tamano + 1));
+        } else if (haciaAtras) {
+            filas = conBusqueda
+                    ? clienteRepository.buscarPorTerminoPosterioresA(termino, antesDe, limite)
+                    : clienteRepository.buscarPosterioresA(antesDe, limite);
+        } else {
+            Long cursor = despuesDe != null ? despuesDe : Long.MAX_VALUE;
+            filas = conBusqueda
+                    ? clienteRepository.buscarPorTerminoAnterioresA(termino, cursor, limite)
+                    : clienteRepository.buscarAnterioresA(cursor, limite);
+        }
+
+        // Sin búsqueda, el total sale de la caché de estadísticas en vez de un COUNT(*)
+        Long totalEstimado = !conBusqueda && estadisticasCache.estaInicializada()
+                ? estadisticasCache.totalClientes()
+                : null;
+        return PaginaCursor.desde(filas, tamano, haciaAtras, despuesDe != null, Cliente::getId, totalEstimado);
+    }
+
+    // Ids del índice en orden de cursor (id descendente, o ascendente hacia atrás)
+    private static List<Long> idsPorCursor(List<Long> ids, Long despuesDe, Long antesDe, int limite) {
+        if (antesDe != null) {
+            return ids.stream().filter(id -> id > antesDe).limit(limite).toList();
+        }
+        Long cursor = despuesDe != null ? despuesDe : Long.MAX_VALUE;
+        return ids.reversed().stream().filter(id -> id < cursor).limit(limite).toList();
     }
 
+    // Carga los clientes en una sola consulta y respeta el orden de 'ids'.
+    // Los ids que ya no existen (borrados fuera del servicio) se quitan del índice.
+    private List<Cliente> cargarEnOrden(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Cliente> porId = clienteRepository.buscarPorIds(ids).stream()
+                .collect(Collectors.toMap(Cliente::getId, Function.identity()));
+        List<Long> ausentes = ids.stream().filter(id -> !porId.containsKey(id)).toList();
+        if (!ausentes.isEmpty()) {
+            indiceBusqueda.descartarAusentes(ausentes);
+        }
+        return ids.stream().map(porId::get).filter(c -> c != null).toList();
+    }
+
+    // Listado por segmento demográfico resuelto con los índices de clientes (sin COUNT)
+    public Slice<Cliente> listarSegmento(FiltroSegmento filtro, Pageable pageable) {
+        return clienteRepository.findBy(FiltrosSegmento.clientes(filtro),
+                consulta -> consulta.project("review").slice(pageable));
+    }
+
+    public long contarSegmento(FiltroSegmento filtro) {
+        return clienteRepository.count(FiltrosSegmento.clientes(filtro));
+    }
+
+    // Sin readOnly: con open-in-view la entidad sigue en la sesión durante la petición y, cargada
+    // en solo lectura, un guardar() posterior (PUT con If-Match) se fusionaría sin llegar al UPDATE
+    @Transactional
     public Cliente buscarPorId(Long id) {
         return clienteRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado con ID: " + id));
+                .orElseThrow(() -> noEncontrado(id));
     }
 
+    @Transactional
     public Cliente guardar(Cliente cliente) {
-        return clienteRepository.save(cliente);
+        // Valores previos para mover el cliente de franja/género en las estadísticas y versión
+        // actual, en una sola consulta
+        DatosPreviosCliente anterior = cliente.getId() != null
+                ? clienteRepository.buscarDatosPrevios(cliente.getId()).orElse(null)
+                : null;
+        // Sin versión (formularios, PUT sin If-Match) se sobrescribe la actual
+        if (anterior != null && cliente.getVersion() == null) {
+            cliente.setVersion(anterior.version());
+        }
+        Cliente guardado = clienteRepository.save(cliente);
+        estadisticasCache.actualizarCliente(anterior != null ? anterior.datosEstadisticos() : null,
+                DatosEstadisticosCliente.de(guardado));
+        indiceBusqueda.indexar(guardado.getId(), guardado.getNombre(), guardado.getGenero());
+        tokenCambios.registrarCambio(TokenCambios.Tabla.CLIENTES);
+        return guardado;
     }
 
-    // Elimina cliente (y su review por cascade)
+    // Elimina cliente (y su review por cascade). Las entidades salen normalmente de la caché de
+    // segundo nivel y remove() solo desaloja sus entradas. Los DELETE llevan la versión: si otra
+    // petición lo borra antes, falla al confirmar y las estadísticas (tras el commit) no cambian
+    @Transactional
     public void borrar(Long id) {
         Cliente cliente = buscarPorId(id);
+        Review review = cliente.getReview();
         clienteRepository.delete(cliente);
+        if (review != null) {
+            estadisticasCache.actualizarReview(review.getValoracion(), null);
+            indiceBusquedaReviews.eliminar(review.getId());
+            tokenCambios.registrarCambio(TokenCambios.Tabla.REVIEWS);
+        }
+        estadisticasCache.actualizarCliente(DatosEstadisticosCliente.de(cliente), null);
+        indiceBusqueda.eliminar(id);
+        tokenCambios.registrarCambio(TokenCambios.Tabla.CLIENTES);
+    }
+
+    private static IllegalArgumentException noEncontrado(Long id) {
+        return new IllegalArgumentException("Cliente no encontrado con ID: " + id);
     }
 }
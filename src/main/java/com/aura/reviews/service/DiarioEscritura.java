@@ -0,0 +1,306 @@
+package com.aura.reviews.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Diario de escritura anticipada (write-ahead log) en ficheros proyectados en memoria.
+// Solo se añade al final: cada registro es [longitud][crc32][datos] y una longitud 0 marca
+// el final de lo escrito. Al llenarse un segmento se abre el siguiente (diario-<n>.log).
+// confirmado.properties guarda la posición del primer registro aún sin aplicar; los
+// segmentos anteriores a ella se borran.
+// Un registro solo se da por escrito cuando él y todos los anteriores están en disco: si el
+// sistema cae con uno anterior sin msync, al reabrir la lectura se pararía en él y los
+// siguientes se sobrescribirían. Los msync van de uno en uno y cada uno cubre todo lo escrito
+// hasta entonces (commit en grupo).
+public class DiarioEscritura {
+
+    // Segmento y desplazamiento dentro de él
+    public record Posicion(long segmento, int desplazamiento) {
+    }
+
+    // Registros leídos y posición desde la que continuar
+    public record Lectura(List<byte[]> registros, Posicion siguiente) {
+    }
+
+    private static final int CABECERA = 8;
+    private static final String PREFIJO = "diario-";
+    private static final String EXTENSION = ".log";
+    static final String CONFIRMADO = "confirmado.properties";
+
+    private final Path directorio;
+    private final int tamanoSegmento;
+
+    // ReentrantLock y no synchronized: con hilos virtuales, esperar en un synchronized
+    // fija el hilo a su carrier
+    private final ReentrantLock bloqueo = new ReentrantLock();
+    private final Condition hayDatos = bloqueo.newCondition();
+
+    // Solo un msync a la vez; quien espera a este bloqueo suele encontrar su registro ya en disco
+    private final ReentrantLock bloqueoDisco = new ReentrantLock();
+
+    // Segmentos sin borrar, por número; el último es en el que se escribe
+    private final TreeMap<Long, MappedByteBuffer> segmentos = new TreeMap<>();
+    private int posicionEscritura;
+    private Posicion confirmada;
+
+    // Hasta dónde está en disco todo el diario (con bloqueoDisco)
+    private Posicion durable;
+
+    public DiarioEscritura(Path directorio, int tamanoSegmento) throws IOException {
+        this.directorio = Files.createDirectories(directorio);
+        this.tamanoSegmento = tamanoSegmento;
+        confirmada = leerConfirmada();
+
+        List<Long> existentes;
+        try (Stream<Path> ficheros = Files.list(directorio)) {
+            existentes = ficheros.map(f -> f.getFileName().toString())
+                    .filter(nombre -> nombre.startsWith(PREFIJO) && nombre.endsWith(EXTENSION))
+                    .map(nombre -> Long.parseLong(nombre.substring(PREFIJO.length(), nombre.length() - EXTENSION.length())))
+                    .sorted()
+                    .toList();
+        }
+        for (long numero : existentes) {
+            if (numero < confirmada.segmento()) {
+                Files.deleteIfExists(ruta(numero));
+            } else {
+                segmentos.put(numero, proyectar(numero));
+            }
+        }
+
+        if (segmentos.isEmpty()) {
+            segmentos.put(confirmada.segmento(), proyectar(confirmada.segmento()));
+            posicionEscritura = 0;
+        } else {
+            // Se sigue escribiendo tras el último registro válido; si la aplicación cayó a mitad
+            // de un registro, sus restos se borran para que no parezcan datos
+            MappedByteBuffer ultimo = segmentos.lastEntry().getValue();
+            posicionEscritura = 0;
+            byte[] datos;
+            while ((datos = leerRegistro(ultimo, posicionEscritura)) != null) {
+                posicionEscritura += CABECERA + datos.length;
+            }
+            int longitud = leerLongitud(ultimo, posicionEscritura);
+            if (longitud != 0) {
+                int restos = (int) Math.min(ultimo.capacity() - posicionEscritura, CABECERA + Math.max(0L, longitud));
+                ultimo.put(posicionEscritura, new byte[restos]);
+                ultimo.force(posicionEscritura, restos);
+            }
+        }
+        durable = new Posicion(segmentos.lastKey(), posicionEscritura);
+    }
+
+    public Posicion confirmada() {
+        bloqueo.lock();
+        try {
+            return confirmada;
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    // Vuelve cuando el registro y todos los anteriores están en disco
+    public void anadir(byte[] datos) throws IOException {
+        int longitud = CABECERA + datos.length;
+        if (longitud > tamanoSegmento) {
+            throw new IllegalArgumentException("Registro de " + datos.length + " bytes mayor que el segmento del diario");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(datos);
+
+        Posicion fin;
+        bloqueo.lock();
+        try {
+            MappedByteBuffer segmento = segmentos.lastEntry().getValue();
+            if (posicionEscritura + longitud > segmento.capacity()) {
+                long siguiente = segmentos.lastKey() + 1;
+                segmento = proyectar(siguiente);
+                segmentos.put(siguiente, segmento);
+                posicionEscritura = 0;
+            }
+            int desde = posicionEscritura;
+            segmento.put(desde + CABECERA, datos);
+            segmento.putInt(desde + 4, (int) crc.getValue());
+            segmento.putInt(desde, datos.length);
+            posicionEscritura += longitud;
+            fin = new Posicion(segmentos.lastKey(), posicionEscritura);
+            hayDatos.signalAll();
+        } finally {
+            bloqueo.unlock();
+        }
+        forzarHasta(fin);
+    }
+
+    // Hasta 'maximo' registros a partir de 'desde' (sin mover el punto de confirmación)
+    public Lectura leer(Posicion desde, int maximo) {
+        List<byte[]> registros = new ArrayList<>();
+        long numero = desde.segmento();
+        int posicion = desde.desplazamiento();
+        bloqueo.lock();
+        try {
+            while (registros.size() < maximo) {
+                MappedByteBuffer segmento = segmentos.get(numero);
+                if (segmento == null) {
+                    break;
+                }
+                boolean esUltimo = numero == segmentos.lastKey();
+                byte[] datos = esUltimo && posicion >= posicionEscritura ? null : leerRegistro(segmento, posicion);
+                if (datos == null) {
+                    if (esUltimo) {
+                        break;
+                    }
+                    numero++;
+                    posicion = 0;
+                    continue;
+                }
+                registros.add(datos);
+                posicion += CABECERA + datos.length;
+            }
+        } finally {
+            bloqueo.unlock();
+        }
+        return new Lectura(registros, new Posicion(numero, posicion));
+    }
+
+    // Espera a que haya registros después de 'desde' (o a que pase el tiempo)
+    public void esperar(Posicion desde, long tiempo, TimeUnit unidad) throws InterruptedException {
+        bloqueo.lock();
+        try {
+            if (desde.segmento() == segmentos.lastKey() && desde.desplazamiento() >= posicionEscritura) {
+                hayDatos.await(tiempo, unidad);
+            }
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    // Los registros anteriores a 'hasta' ya están aplicados: tras un reinicio no se releen
+    public void confirmar(Posicion hasta) throws IOException {
+        // Escritura atómica (fichero temporal + move) para no dejar una posición a medias
+        Properties propiedades = new Properties();
+        propiedades.setProperty("segmento", String.valueOf(hasta.segmento()));
+        propiedades.setProperty("desplazamiento", String.valueOf(hasta.desplazamiento()));
+        Path temporal = directorio.resolve(CONFIRMADO + ".tmp");
+        try (Writer salida = Files.newBufferedWriter(temporal, StandardCharsets.UTF_8)) {
+            propiedades.store(salida, "Primer registro del diario sin aplicar");
+        }
+        Files.move(temporal, directorio.resolve(CONFIRMADO),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        bloqueo.lock();
+        try {
+            confirmada = hasta;
+            while (segmentos.firstKey() < hasta.segmento()) {
+                long numero = segmentos.pollFirstEntry().getKey();
+                try {
+                    Files.deleteIfExists(ruta(numero));
+                } catch (IOException e) {
+                    // Se vuelve a intentar al abrir el diario (el segmento ya está aplicado)
+                }
+            }
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    // Fuera de 'bloqueo': mientras dura el msync se siguen añadiendo registros, que cubrirá el
+    // siguiente. Los segmentos ya borrados por confirmar() están aplicados y no hace falta forzarlos
+    private void forzarHasta(Posicion fin) {
+        bloqueoDisco.lock();
+        try {
+            if (!anterior(durable, fin)) {
+                return;
+            }
+            Posicion escrito;
+            List<Map.Entry<Long, MappedByteBuffer>> pendientes;
+            bloqueo.lock();
+            try {
+                escrito = new Posicion(segmentos.lastKey(), posicionEscritura);
+                pendientes = new ArrayList<>(segmentos.tailMap(durable.segmento(), true).entrySet());
+            } finally {
+                bloqueo.unlock();
+            }
+            for (Map.Entry<Long, MappedByteBuffer> entrada : pendientes) {
+                MappedByteBuffer segmento = entrada.getValue();
+                int desde = entrada.getKey() == durable.segmento() ? durable.desplazamiento() : 0;
+                int hasta = entrada.getKey() == escrito.segmento() ? escrito.desplazamiento() : segmento.capacity();
+                if (hasta > desde) {
+                    segmento.force(desde, hasta - desde);
+                }
+            }
+            durable = escrito;
+        } finally {
+            bloqueoDisco.unlock();
+        }
+    }
+
+    private static boolean anterior(Posicion a, Posicion b) {
+        return a.segmento() < b.segmento()
+                || (a.segmento() == b.segmento() && a.desplazamiento() < b.desplazamiento());
+    }
+
+    private Posicion leerConfirmada() throws IOException {
+        Path ruta = directorio.resolve(CONFIRMADO);
+        if (!Files.exists(ruta)) {
+            return new Posicion(0, 0);
+        }
+        Properties propiedades = new Properties();
+        try (Reader entrada = Files.newBufferedReader(ruta, StandardCharsets.UTF_8)) {
+            propiedades.load(entrada);
+        }
+        return new Posicion(Long.parseLong(propiedades.getProperty("segmento")),
+                Integer.parseInt(propiedades.getProperty("desplazamiento")));
+    }
+
+    private Path ruta(long numero) {
+        return directorio.resolve(String.format("%s%019d%s", PREFIJO, numero, EXTENSION));
+    }
+
+    // La proyección sigue siendo válida después de cerrar el canal
+    private MappedByteBuffer proyectar(long numero) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta(numero),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            boolean nuevo = canal.size() == 0;
+            MappedByteBuffer segmento = canal.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(canal.size(), tamanoSegmento));
+            if (nuevo) {
+                // El tamaño del fichero también debe llegar a disco
+                canal.force(true);
+            }
+            return segmento;
+        }
+    }
+
+    // Datos del registro en 'posicion', o null si no hay un registro completo (fin o restos)
+    private static byte[] leerRegistro(MappedByteBuffer segmento, int posicion) {
+        int longitud = leerLongitud(segmento, posicion);
+        if (longitud <= 0 || longitud > segmento.capacity() - posicion - CABECERA) {
+            return null;
+        }
+        byte[] datos = new byte[longitud];
+        segmento.get(posicion + CABECERA, datos);
+        CRC32 crc = new CRC32();
+        crc.update(datos);
+        return (int) crc.getValue() == segmento.getInt(posicion + 4) ? datos : null;
+    }
+
+    private static int leerLongitud(MappedByteBuffer segmento, int posicion) {
+        return posicion + CABECERA <= segmento.capacity() ? segmento.getInt(posicion) : 0;
+    }
+}
@@ -0,0 +1,168 @@
+package com.aura.reviews.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PreDestroy;
+import tools.jackson.databind.ObjectMapper;
+
+// Stream SSE del panel de informes (/informes/stream). En cada intervalo se recogen los
+// cambios de EstadisticasCache y se envía un único evento "delta" a todos los paneles, con el
+// JSON serializado una sola vez: el coste no depende de cuántas escrituras haya habido.
+// Un panel nuevo recibe primero un evento "estado" con los totales del mismo corte, así no
+// pierde ni cuenta dos veces los cambios ocurridos desde que se renderizó la página.
+// El planificador solo encola: cada panel tiene una cola acotada que vacía un hilo virtual, y
+// un panel que no la vacía a tiempo (conexión atascada) se descarta sin frenar a los demás
+// ni a las otras tareas programadas.
+@Component
+public class DifusionEstadisticas {
+
+    // Comentario periódico para que los proxies no cierren la conexión y detectar paneles cerrados
+    private static final long LATIDO_NS = TimeUnit.SECONDS.toNanos(30);
+
+    // Eventos sin enviar por panel (uno por intervalo como mucho): con la cola llena se descarta
+    static final int MAXIMO_PENDIENTES = 16;
+
+    @Autowired
+    private EstadisticasCache estadisticasCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Suscriptor> suscriptores = new CopyOnWriteArrayList<>();
+    private final Queue<Suscriptor> nuevos = new ConcurrentLinkedQueue<>();
+
+    // Hilos virtuales aunque spring.threads.virtual.enabled esté desactivado: un envío atascado
+    // solo retiene su hilo, y un pool fijo se agotaría con unos pocos paneles atascados
+    private final ExecutorService envios = Executors.newVirtualThreadPerTaskExecutor();
+
+    private volatile long ultimoEnvio = System.nanoTime();
+
+    // Sin timeout propio: spring.mvc.async.request-timeout; EventSource se reconecta solo
+    public SseEmitter suscribir() {
+        return suscribir(new SseEmitter());
+    }
+
+    public SseEmitter suscribir(SseEmitter emisor) {
+        Suscriptor suscriptor = new Suscriptor(emisor);
+        Runnable quitar = () -> {
+            suscriptores.remove(suscriptor);
+            nuevos.remove(suscriptor);
+        };
+        emisor.onCompletion(quitar);
+        emisor.onTimeout(quitar);
+        emisor.onError(error -> quitar.run());
+        nuevos.add(suscriptor);
+        return emisor;
+    }
+
+    // Hasta que la caché esté cargada los nuevos esperan: sus totales aún no son reales
+    @Scheduled(fixedDelayString = "${aura.informes.intervalo-stream-ms:1000}")
+    public void difundir() {
+        boolean incorporar = !nuevos.isEmpty() && estadisticasCache.estaInicializada();
+        EstadisticasCache.Corte corte = estadisticasCache.tomarCambios(incorporar);
+
+        if (!corte.cambios().isEmpty()) {
+            enviar(suscriptores, "delta", objectMapper.writeValueAsString(EstadisticasCache.panel(corte.cambios())));
+        } else if (System.nanoTime() - ultimoEnvio > LATIDO_NS) {
+            enviar(suscriptores, null, null);
+        }
+
+        if (incorporar) {
+            List<Suscriptor> incorporados = new ArrayList<>();
+            Suscriptor suscriptor;
+            while ((suscriptor = nuevos.poll()) != null) {
+                incorporados.add(suscriptor);
+            }
+            // Se añaden después de encolar el estado: ningún delta puede adelantarlo
+            enviar(incorporados, "estado", objectMapper.writeValueAsString(EstadisticasCache.panel(corte.foto())));
+            suscriptores.addAll(incorporados);
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        envios.shutdownNow();
+    }
+
+    // Evento sin nombre: latido
+    private void enviar(List<Suscriptor> destino, String evento, String json) {
+        for (Suscriptor suscriptor : destino) {
+            suscriptor.encolar(new Evento(evento, json));
+        }
+        ultimoEnvio = System.nanoTime();
+    }
+
+    private record Evento(String nombre, String json) {
+    }
+
+    // Un panel y sus eventos pendientes. Como mucho un hilo vacía la cola a la vez, así los
+    // eventos llegan en orden
+    private final class Suscriptor {
+
+        private final SseEmitter emisor;
+        private final BlockingQueue<Evento> pendientes = new ArrayBlockingQueue<>(MAXIMO_PENDIENTES);
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private final AtomicBoolean cerrado = new AtomicBoolean();
+
+        Suscriptor(SseEmitter emisor) {
+            this.emisor = emisor;
+        }
+
+        void encolar(Evento evento) {
+            if (!pendientes.offer(evento)) {
+                // Se ha quedado atrás: EventSource se reconectará y recibirá un estado nuevo
+                descartar(true);
+                return;
+            }
+            if (enviando.compareAndSet(false, true)) {
+                envios.execute(this::vaciar);
+            }
+        }
+
+        private void vaciar() {
+            do {
+                Evento evento;
+                while ((evento = pendientes.poll()) != null) {
+                    try {
+                        emisor.send(evento.nombre() == null
+                                ? SseEmitter.event().comment("latido")
+                                : SseEmitter.event().name(evento.nombre()).data(evento.json(), MediaType.APPLICATION_JSON));
+                    } catch (IOException | IllegalStateException e) {
+                        // Panel cerrado: la conexión ya no sirve
+                        descartar(false);
+                        return;
+                    }
+                }
+                enviando.set(false);
+                // Un evento encolado justo antes de soltar la marca no se queda sin enviar
+            } while (!pendientes.isEmpty() && enviando.compareAndSet(false, true));
+        }
+
+        private void descartar(boolean cerrar) {
+            suscriptores.remove(this);
+            nuevos.remove(this);
+            pendientes.clear();
+            if (cerrar && cerrado.compareAndSet(false, true)) {
+                // complete() puede esperar al envío atascado: fuera del planificador
+                envios.execute(emisor::complete);
+            }
+        }
+    }
+}
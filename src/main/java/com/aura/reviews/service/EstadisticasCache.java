@@ -0,0 +1,196 @@
+package com.aura.reviews.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.aura.reviews.dto.DatosEstadisticosCliente;
+import com.aura.reviews.dto.EstadisticasClientes;
+import com.aura.reviews.dto.EstadisticasPanel;
+import com.aura.reviews.entity.FranjaEdad;
+
+// Contadores en memoria del panel de informes, mantenidos de forma incremental.
+// Cada contador es un LongAdder: escrituras sin bloqueo entre sí y lecturas O(1) por clave.
+// Los cambios se acumulan también aparte hasta que el stream del panel los recoge.
+@Component
+public class EstadisticasCache {
+
+    // Cambios acumulados desde el corte anterior y totales en ese mismo instante (si se piden)
+    public record Corte(Map<String, Long> cambios, Map<String, Long> foto) {
+    }
+
+    static final String VALORACION = "valoracion:";
+    static final String GENERO = "genero:";
+    static final String FRANJA = "franja:";
+    static final String INTOLERANCIA = "intolerancia:";
+
+    private final ConcurrentHashMap<String, LongAdder> contadores = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> sinEnviar = new ConcurrentHashMap<>();
+
+    // Las escrituras comparten el de lectura; el corte toma el de escritura para que los
+    // cambios y la foto correspondan al mismo instante
+    private final ReentrantReadWriteLock cerrojo = new ReentrantReadWriteLock();
+
+    private volatile boolean inicializada = false;
+
+    public boolean estaInicializada() {
+        return inicializada;
+    }
+
+    // Alta, baja o modificación de un cliente (anterior/nuevo null según el caso)
+    public void actualizarCliente(DatosEstadisticosCliente anterior, DatosEstadisticosCliente nuevo) {
+        TrasCommit.ejecutar(() -> {
+            if (anterior != null) {
+                sumarCliente(anterior, -1);
+            }
+            if (nuevo != null) {
+                sumarCliente(nuevo, 1);
+            }
+        });
+    }
+
+    // Alta, baja o cambio de valoración de una review
+    public void actualizarReview(Integer valoracionAnterior, Integer valoracionNueva) {
+        TrasCommit.ejecutar(() -> {
+            if (valoracionAnterior != null) {
+                sumar(VALORACION + valoracionAnterior, -1);
+            }
+            if (valoracionNueva != null) {
+                sumar(VALORACION + valoracionNueva, 1);
+            }
+        });
+    }
+
+    // Mapa valoración -> cantidad (1-5 estrellas)
+    public Map<Integer, Long> reviewsPorValoracion() {
+        Map<Integer, Long> conteo = new HashMap<>();
+        for (int i = 1; i <= 5; i++) {
+            conteo.put(i, valor(VALORACION + i));
+        }
+        return conteo;
+    }
+
+    public EstadisticasClientes estadisticasClientes() {
+        Map<String, Long> porGenero = new HashMap<>();
+        Map<String, Long> porFranjaEdad = new LinkedHashMap<>();
+        Map<String, Long> porIntolerancia = new LinkedHashMap<>();
+
+        contadores.forEach((clave, contador) -> {
+            long cantidad = contador.sum();
+            if (clave.startsWith(GENERO) && cantidad > 0) {
+                porGenero.put(clave.substring(GENERO.length()), cantidad);
+            }
+        });
+        for (String franja : FranjaEdad.ETIQUETAS) {
+            porFranjaEdad.put(franja, valor(FRANJA + franja));
+        }
+        porIntolerancia.put(InformeService.CON_INTOLERANCIA, valor(INTOLERANCIA + InformeService.CON_INTOLERANCIA));
+        porIntolerancia.put(InformeService.SIN_INTOLERANCIA, valor(INTOLERANCIA + InformeService.SIN_INTOLERANCIA));
+
+        return new EstadisticasClientes(porGenero, porFranjaEdad, porIntolerancia);
+    }
+
+    // Totales para estimar el número de filas sin COUNT(*)
+    public long totalReviews() {
+        long total = 0;
+        for (int i = 1; i <= 5; i++) {
+            total += valor(VALORACION + i);
+        }
+        return total;
+    }
+
+    public long totalClientes() {
+        return valor(INTOLERANCIA + InformeService.CON_INTOLERANCIA)
+                + valor(INTOLERANCIA + InformeService.SIN_INTOLERANCIA);
+    }
+
+    // Foto plana de todos los contadores (clave con prefijo -> valor)
+    Map<String, Long> instantanea() {
+        Map<String, Long> foto = new HashMap<>();
+        contadores.forEach((clave, contador) -> foto.put(clave, contador.sum()));
+        return foto;
+    }
+
+    // Recoge (y pone a cero) los cambios pendientes de enviar; con conFoto, también los totales
+    public Corte tomarCambios(boolean conFoto) {
+        cerrojo.writeLock().lock();
+        try {
+            Map<String, Long> cambios = new HashMap<>();
+            sinEnviar.forEach((clave, contador) -> {
+                long cambio = contador.sumThenReset();
+                if (cambio != 0) {
+                    cambios.put(clave, cambio);
+                }
+            });
+            return new Corte(cambios, conFoto ? instantanea() : null);
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    // Aplica correcciones de deriva calculadas por la reconciliación
+    void ajustar(Map<String, Long> deltas) {
+        deltas.forEach(this::sumar);
+        inicializada = true;
+    }
+
+    // Convierte los conteos de la BD al mismo formato plano que instantanea()
+    static Map<String, Long> aplanar(EstadisticasClientes clientes, Map<Integer, Long> valoraciones) {
+        Map<String, Long> plano = new HashMap<>();
+        valoraciones.forEach((valoracion, cantidad) -> plano.put(VALORACION + valoracion, cantidad));
+        clientes.porGenero().forEach((genero, cantidad) -> plano.put(GENERO + genero, cantidad));
+        clientes.porFranjaEdad().forEach((franja, cantidad) -> plano.put(FRANJA + franja, cantidad));
+        clientes.porIntolerancia().forEach((clave, cantidad) -> plano.put(INTOLERANCIA + clave, cantidad));
+        return plano;
+    }
+
+    // Formato plano -> datos de los gráficos del panel (solo las claves presentes)
+    public static EstadisticasPanel panel(Map<String, Long> plano) {
+        Map<Integer, Long> porValoracion = new HashMap<>();
+        Map<String, Long> porGenero = new HashMap<>();
+        Map<String, Long> porFranjaEdad = new HashMap<>();
+        Map<String, Long> porIntolerancia = new HashMap<>();
+        plano.forEach((clave, cantidad) -> {
+            if (clave.startsWith(VALORACION)) {
+                porValoracion.put(Integer.valueOf(clave.substring(VALORACION.length())), cantidad);
+            } else if (clave.startsWith(GENERO)) {
+                porGenero.put(clave.substring(GENERO.length()), cantidad);
+            } else if (clave.startsWith(FRANJA)) {
+                porFranjaEdad.put(clave.substring(FRANJA.length()), cantidad);
+            } else if (clave.startsWith(INTOLERANCIA)) {
+                porIntolerancia.put(clave.substring(INTOLERANCIA.length()), cantidad);
+            }
+        });
+        return new EstadisticasPanel(porValoracion, porGenero, porFranjaEdad, porIntolerancia);
+    }
+
+    private void sumarCliente(DatosEstadisticosCliente datos, long signo) {
+        sumar(GENERO + datos.genero(), signo);
+        if (datos.edad() != null) {
+            sumar(FRANJA + FranjaEdad.calcular(datos.edad()), signo);
+        }
+        String intolerancia = Boolean.TRUE.equals(datos.intolerancia())
+                ? InformeService.CON_INTOLERANCIA : InformeService.SIN_INTOLERANCIA;
+        sumar(INTOLERANCIA + intolerancia, signo);
+    }
+
+    private void sumar(String clave, long cantidad) {
+        cerrojo.readLock().lock();
+        try {
+            contadores.computeIfAbsent(clave, k -> new LongAdder()).add(cantidad);
+            sinEnviar.computeIfAbsent(clave, k -> new LongAdder()).add(cantidad);
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    private long valor(String clave) {
+        LongAdder contador = contadores.get(clave);
+        return contador == null ? 0L : contador.sum();
+    }
+}
@@ -0,0 +1,171 @@
+package com.aura.reviews.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aura.reviews.repository.ClienteRepository;
+import com.aura.reviews.repository.ExportacionJdbcRepository;
+import com.aura.reviews.repository.ReviewRepository;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import tools.jackson.databind.ObjectMapper;
+
+// Exportación completa en streaming: memoria constante sea cual sea el tamaño de la tabla
+@Service
+@Timed(value = "aura.servicio", histogram = true)
+public class ExportacionService {
+
+    // Filas escritas entre cada flush de la salida y limpieza del contexto de persistencia
+    private static final int TAMANO_BLOQUE = 500;
+
+    // Mismos nombres de columna que acepta la importación CSV (las columnas extra se ignoran)
+    private static final String CABECERA_CLIENTES =
+            "id,nombre,edad,genero,intolerancia,detalle_intolerancia,review_id,review_valoracion";
+    private static final String CABECERA_REVIEWS =
+            "id,descripcion,valoracion,cliente_id,cliente_nombre,cliente_edad,cliente_genero";
+
+    // Marca de orden de bytes para que Excel abra el CSV como UTF-8
+    private static final char BOM = '\uFEFF';
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private ExportacionJdbcRepository exportacionJdbcRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Un cliente JSON por línea (application/x-ndjson)
+    public void exportarClientesNdjson(OutputStream salida) {
+        enTransaccionLectura(() -> {
+            try (Stream<?> clientes = clienteRepository.streamTodos()) {
+                escribirNdjson(clientes, salida);
+            }
+        });
+    }
+
+    // Una review JSON por línea, con su cliente
+    public void exportarReviewsNdjson(OutputStream salida) {
+        enTransaccionLectura(() -> {
+            try (Stream<?> reviews = reviewRepository.streamTodos()) {
+                escribirNdjson(reviews, salida);
+            }
+        });
+    }
+
+    // CSV con cabecera leído con un cursor JDBC; opcionalmente comprimido en gzip
+    public void exportarClientesCsv(String busqueda, boolean gzip, boolean bom, OutputStream salida) {
+        escribirCsv(CABECERA_CLIENTES, gzip, bom, salida,
+                porFila -> exportacionJdbcRepository.recorrerClientes(busqueda, porFila));
+    }
+
+    public void exportarReviewsCsv(String busqueda, boolean gzip, boolean bom, OutputStream salida) {
+        escribirCsv(CABECERA_REVIEWS, gzip, bom, salida,
+                porFila -> exportacionJdbcRepository.recorrerReviews(busqueda, porFila));
+    }
+
+    private void escribirCsv(String cabecera, boolean gzip, boolean bom, OutputStream salida,
+                             Consumer<RowCallbackHandler> consulta) {
+        try {
+            OutputStream destino = gzip ? new GZIPOutputStream(salida, 8192) : salida;
+            Writer escritor = new OutputStreamWriter(destino, StandardCharsets.UTF_8);
+            if (bom) {
+                escritor.write(BOM);
+            }
+            escritor.write(cabecera);
+            escritor.write('\n');
+            int columnas = cabecera.split(",").length;
+            int[] enBloque = {0};
+            consulta.accept(resultado -> {
+                try {
+                    for (int i = 1; i <= columnas; i++) {
+                        if (i > 1) {
+                            escritor.write(',');
+                        }
+                        escritor.write(celda(resultado.getObject(i)));
+                    }
+                    escritor.write('\n');
+                    if (++enBloque[0] == TAMANO_BLOQUE) {
+                        escritor.flush();
+                        enBloque[0] = 0;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            escritor.flush();
+            if (destino instanceof GZIPOutputStream comprimido) {
+                comprimido.finish();
+            }
+            salida.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Los textos que empiezan por =, +, - o @ se prefijan con ' para que la hoja de
+    // cálculo no los interprete como fórmulas
+    private static String celda(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor.toString();
+        if (valor instanceof String && !texto.isEmpty() && "=+-@".indexOf(texto.charAt(0)) >= 0) {
+            texto = "'" + texto;
+        }
+        return LectorRegistros.escapar(texto);
+    }
+
+    private void escribirNdjson(Stream<?> filas, OutputStream salida) {
+        try {
+            int enBloque = 0;
+            Iterator<?> iterador = filas.iterator();
+            while (iterador.hasNext()) {
+                salida.write(objectMapper.writeValueAsBytes(iterador.next()));
+                salida.write('\n');
+                if (++enBloque == TAMANO_BLOQUE) {
+                    // Desvincula las entidades ya escritas para que el contexto no crezca
+                    entityManager.clear();
+                    salida.flush();
+                    enBloque = 0;
+                }
+            }
+            salida.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // El Stream de Hibernate necesita la conexión abierta mientras se recorre
+    private void enTransaccionLectura(Runnable accion) {
+        TransactionTemplate plantilla = new TransactionTemplate(transactionManager);
+        plantilla.setReadOnly(true);
+        plantilla.executeWithoutResult(estado -> accion.run());
+    }
+}
@@ -0,0 +1,535 @@
+package com.aura.reviews.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aura.reviews.dto.EstadoImportacion;
+import com.aura.reviews.dto.ResultadoLote;
+import com.aura.reviews.entity.Cliente;
+import com.aura.reviews.entity.ProgresoImportacion;
+import com.aura.reviews.entity.Review;
+import com.aura.reviews.repository.ProgresoImportacionRepository;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.Validator;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+// Importación masiva de clientes o reviews desde CSV (con cabecera) o NDJSON.
+// El fichero se vuelca a disco en streaming y se procesa en segundo plano por etapas
+// unidas con colas acotadas (si la escritura se retrasa, la lectura espera):
+//   lectura -> conversores en paralelo (parseo + validación) -> escritor
+// El escritor recupera el orden de los registros y guarda bloques de TAMANO_BLOQUE con
+// LoteService. El punto de control (tabla importaciones) se actualiza en la misma transacción
+// que el bloque: una caída entre ambos no puede dejar registros guardados sin confirmar.
+@Service
+@Timed(value = "aura.servicio", histogram = true)
+public class ImportacionService {
+
+    public enum Tipo {
+        CLIENTES, REVIEWS
+    }
+
+    public enum Formato {
+        CSV, NDJSON
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacionService.class);
+
+    private static final int CONVERSORES = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+    private static final int CAPACIDAD_COLA = 1000;
+    private static final int TAMANO_BLOQUE = 500;
+
+    // Ficheros de cada importación, en <directorio>/<id>/
+    static final String DATOS = "datos";
+    static final String CONTROL = "control.properties";  // tipo y formato
+    static final String RECHAZADOS = "rechazados.csv";
+
+    @Value("${aura.importacion.directorio}")
+    private String directorio;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean hilosVirtuales;
+
+    @Autowired
+    private LoteService loteService;
+
+    @Autowired
+    private ProgresoImportacionRepository progresoImportacionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    private final Map<String, Importacion> importaciones = new ConcurrentHashMap<>();
+
+    // ReentrantLock y no synchronized: con hilos virtuales, bloquear (E/S) dentro de un
+    // synchronized fija el hilo a su carrier
+    private final ReentrantLock bloqueoReanudar = new ReentrantLock();
+
+    public EstadoImportacion iniciar(Tipo tipo, Formato formato, InputStream cuerpo) throws IOException {
+        String id = UUID.randomUUID().toString();
+        Path carpeta = Files.createDirectories(Path.of(directorio, id));
+        // Copia en streaming: el fichero subido nunca está entero en memoria
+        Files.copy(cuerpo, carpeta.resolve(DATOS));
+        Importacion importacion = new Importacion(id, tipo, formato, carpeta);
+        importacion.guardarControl();
+        progresoImportacionRepository.save(importacion.progreso());
+        lanzar(importacion);
+        return importacion.estado();
+    }
+
+    public Optional<EstadoImportacion> consultar(String id) {
+        return Optional.ofNullable(importaciones.get(id)).map(Importacion::estado);
+    }
+
+    // Tras un fallo o un reinicio de la aplicación: continúa desde el último bloque confirmado
+    public Optional<EstadoImportacion> reanudar(String id) throws IOException {
+        bloqueoReanudar.lock();
+        try {
+            Importacion actual = importaciones.get(id);
+            if (actual != null && actual.estado == EstadoImportacion.Estado.EN_CURSO) {
+                return Optional.of(actual.estado());
+            }
+            Optional<Path> carpeta = carpeta(id).filter(c -> Files.exists(c.resolve(CONTROL)));
+            if (carpeta.isEmpty()) {
+                return Optional.empty();
+            }
+            Importacion importacion = Importacion.desdeControl(id, carpeta.get());
+            progresoImportacionRepository.findById(id).ifPresent(importacion::restaurar);
+            lanzar(importacion);
+            return Optional.of(importacion.estado());
+        } finally {
+            bloqueoReanudar.unlock();
+        }
+    }
+
+    // CSV con los registros rechazados: número de registro, errores y contenido original
+    public Optional<Path> ficheroRechazados(String id) {
+        return carpeta(id).map(c -> c.resolve(RECHAZADOS)).filter(Files::exists);
+    }
+
+    // Solo ids con formato UUID: el id forma parte de una ruta en disco
+    private Optional<Path> carpeta(String id) {
+        try {
+            UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        Path carpeta = Path.of(directorio, id);
+        return Files.isDirectory(carpeta) ? Optional.of(carpeta) : Optional.empty();
+    }
+
+    private void lanzar(Importacion importacion) {
+        importaciones.put(importacion.id, importacion);
+        taskExecutor.execute(() -> ejecutar(importacion));
+    }
+
+    private void ejecutar(Importacion importacion) {
+        BlockingQueue<Registro> pendientes = new ArrayBlockingQueue<>(CAPACIDAD_COLA);
+        BlockingQueue<Fila> convertidas = new ArrayBlockingQueue<>(CAPACIDAD_COLA);
+        // Las etapas pasan casi todo el tiempo bloqueadas en colas o en E/S
+        ExecutorService etapas = hilosVirtuales
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(CONVERSORES + 1);
+
+        try (LectorRegistros lector = new LectorRegistros(
+                     Files.newBufferedReader(importacion.carpeta.resolve(DATOS), StandardCharsets.UTF_8),
+                     importacion.formato == Formato.CSV);
+             Writer rechazados = importacion.abrirRechazados()) {
+            try {
+                List<String> cabecera = importacion.formato == Formato.CSV
+                        ? leerCabecera(importacion.tipo, lector)
+                        : List.of();
+                etapas.execute(() -> leer(importacion, lector, pendientes));
+                for (int i = 0; i < CONVERSORES; i++) {
+                    etapas.execute(() -> convertir(importacion, cabecera, pendientes, convertidas));
+                }
+                escribir(importacion, convertidas, rechazados);
+                if (importacion.errorLectura != null) {
+                    throw importacion.errorLectura;
+                }
+            } finally {
+                // Si el escritor falla, las demás etapas pueden estar bloqueadas en una cola
+                etapas.shutdownNow();
+                etapas.awaitTermination(1, TimeUnit.MINUTES);
+            }
+            importacion.terminar(null);
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("Importación {} detenida en el registro {}", importacion.id, importacion.checkpoint, e);
+            importacion.terminar(e);
+        }
+    }
+
+    // Etapa 1: lee registros del fichero (saltando los ya confirmados)
+    private void leer(Importacion importacion, LectorRegistros lector, BlockingQueue<Registro> pendientes) {
+        try {
+            long numero = 0;
+            String texto;
+            while ((texto = lector.siguiente()) != null) {
+                numero++;
+                if (numero > importacion.checkpoint) {
+                    pendientes.put(new Registro(numero, texto));
+                    importacion.leidos.incrementAndGet();
+                }
+            }
+        } catch (IOException e) {
+            importacion.errorLectura = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            for (int i = 0; i < CONVERSORES; i++) {
+                pendientes.put(Registro.FIN);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Etapa 2 (en paralelo): convierte cada registro en entidad y la valida
+    private void convertir(Importacion importacion, List<String> cabecera,
+                           BlockingQueue<Registro> pendientes, BlockingQueue<Fila> convertidas) {
+        try {
+            Registro registro;
+            while ((registro = pendientes.take()) != Registro.FIN) {
+                convertidas.put(convertir(importacion, cabecera, registro));
+            }
+            convertidas.put(Fila.FIN);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Fila convertir(Importacion importacion, List<String> cabecera, Registro registro) {
+        Object entidad;
+        try {
+            if (importacion.formato == Formato.CSV) {
+                entidad = desdeCsv(importacion.tipo, cabecera, LectorRegistros.campos(registro.texto()));
+            } else {
+                Class<?> clase = importacion.tipo == Tipo.REVIEWS ? Review.class : Cliente.class;
+                entidad = objectMapper.readValue(registro.texto(), clase);
+            }
+        } catch (JacksonException e) {
+            return new Fila(registro, null, List.of("Formato incorrecto: " + e.getOriginalMessage()));
+        } catch (IllegalArgumentException e) {
+            return new Fila(registro, null, List.of("Formato incorrecto: " + e.getMessage()));
+        }
+        List<String> errores = validator.validate(entidad).stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .toList();
+        return new Fila(registro, errores.isEmpty() ? entidad : null, errores);
+    }
+
+    // Etapa 3: los conversores terminan en cualquier orden; se reordena por número de registro
+    // para que el punto de control cubra siempre un prefijo completo del fichero
+    private void escribir(Importacion importacion, BlockingQueue<Fila> convertidas, Writer rechazados)
+            throws InterruptedException {
+        TreeMap<Long, Fila> reorden = new TreeMap<>();
+        List<Fila> bloque = new ArrayList<>(TAMANO_BLOQUE);
+        long siguiente = importacion.checkpoint + 1;
+        int terminados = 0;
+        while (terminados < CONVERSORES) {
+            Fila fila = convertidas.take();
+            if (fila == Fila.FIN) {
+                terminados++;
+                continue;
+            }
+            reorden.put(fila.registro().numero(), fila);
+            Fila enOrden;
+            while ((enOrden = reorden.remove(siguiente)) != null) {
+                bloque.add(enOrden);
+                siguiente++;
+                if (bloque.size() == TAMANO_BLOQUE) {
+                    guardarBloque(importacion, bloque, rechazados);
+                    bloque.clear();
+                }
+            }
+        }
+        if (!bloque.isEmpty()) {
+            guardarBloque(importacion, bloque, rechazados);
+        }
+    }
+
+    // Un bloque = una transacción: las entidades (LoteService se une a ella, JDBC batching) y el
+    // punto de control. Los rechazados se escriben antes del commit; si falla, al reanudar se
+    // recortan al tamaño confirmado. Un fallo de BD detiene la importación sin mover el punto de control.
+    @SuppressWarnings("unchecked")
+    private void guardarBloque(Importacion importacion, List<Fila> bloque, Writer rechazados) {
+        List<Object> entidades = bloque.stream().map(Fila::entidad).filter(e -> e != null).toList();
+        long ultimoRegistro = bloque.getLast().registro().numero();
+        ProgresoImportacion progreso = new TransactionTemplate(transactionManager).execute(estado -> {
+            List<ResultadoLote> resultados = List.of();
+            if (!entidades.isEmpty()) {
+                resultados = (importacion.tipo == Tipo.REVIEWS
+                        ? loteService.guardarReviews((List<Review>) (List<?>) entidades, true)
+                        : loteService.guardarClientes((List<Cliente>) (List<?>) entidades, true)).resultados();
+            }
+
+            long guardados = importacion.guardados;
+            long rechazadosTotal = importacion.rechazados;
+            int k = 0;
+            try {
+                for (Fila fila : bloque) {
+                    List<String> errores = fila.errores();
+                    if (fila.entidad() != null) {
+                        errores = resultados.get(k++).errores();
+                    }
+                    if (errores.isEmpty()) {
+                        guardados++;
+                    } else {
+                        rechazadosTotal++;
+                        rechazados.write(fila.registro().numero() + ","
+                                + LectorRegistros.escapar(String.join("; ", errores)) + ","
+                                + LectorRegistros.escapar(fila.registro().texto()) + "\n");
+                    }
+                }
+                rechazados.flush();
+                return progresoImportacionRepository.save(new ProgresoImportacion(importacion.id, ultimoRegistro,
+                        guardados, rechazadosTotal, Files.size(importacion.carpeta.resolve(RECHAZADOS))));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        importacion.restaurar(progreso);
+    }
+
+    private static List<String> leerCabecera(Tipo tipo, LectorRegistros lector) throws IOException {
+        String linea = lector.siguiente();
+        if (linea == null) {
+            return List.of();
+        }
+        List<String> cabecera = LectorRegistros.campos(linea).stream().map(ImportacionService::columna).toList();
+        List<String> obligatorias = tipo == Tipo.REVIEWS
+                ? List.of("descripcion", "valoracion")
+                : List.of("nombre", "edad", "genero");
+        for (String columna : obligatorias) {
+            if (!cabecera.contains(columna)) {
+                throw new IllegalArgumentException("Falta la columna '" + columna + "' en la cabecera");
+            }
+        }
+        return cabecera;
+    }
+
+    // Nombre de columna normalizado: "cliente_id", "clienteId" y "Cliente ID" son la misma
+    private static String columna(String nombre) {
+        return nombre.trim().replace("_", "").replace(" ", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static Object desdeCsv(Tipo tipo, List<String> cabecera, List<String> campos) {
+        if (campos.size() != cabecera.size()) {
+            throw new IllegalArgumentException("se esperaban " + cabecera.size() + " columnas y hay " + campos.size());
+        }
+        Map<String, String> valores = new HashMap<>();
+        for (int i = 0; i < cabecera.size(); i++) {
+            String valor = campos.get(i).trim();
+            valores.put(cabecera.get(i), valor.isEmpty() ? null : valor);
+        }
+
+        if (tipo == Tipo.REVIEWS) {
+            Cliente cliente = null;
+            Long clienteId = numeroLargo(valores, "clienteid");
+            if (clienteId != null) {
+                cliente = new Cliente();
+                cliente.setId(clienteId);
+            }
+            Review review = new Review(valores.get("descripcion"), numero(valores, "valoracion"), cliente);
+            review.setId(numeroLargo(valores, "id"));
+            return review;
+        }
+        Cliente cliente = new Cliente(valores.get("nombre"), numero(valores, "edad"), valores.get("genero"),
+                booleano(valores, "intolerancia"), valores.get("detalleintolerancia"));
+        cliente.setId(numeroLargo(valores, "id"));
+        return cliente;
+    }
+
+    private static Integer numero(Map<String, String> valores, String columna) {
+        String valor = valores.get(columna);
+        try {
+            return valor == null ? null : Integer.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(columna + " no es un número: " + valor);
+        }
+    }
+
+    private static Long numeroLargo(Map<String, String> valores, String columna) {
+        String valor = valores.get(columna);
+        try {
+            return valor == null ? null : Long.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(columna + " no es un número: " + valor);
+        }
+    }
+
+    private static Boolean booleano(Map<String, String> valores, String columna) {
+        String valor = valores.get(columna);
+        if (valor == null) {
+            return false;
+        }
+        return switch (valor.toLowerCase(Locale.ROOT)) {
+            case "true", "1", "si", "sí" -> true;
+            case "false", "0", "no" -> false;
+            default -> throw new IllegalArgumentException(columna + " debe ser true/false: " + valor);
+        };
+    }
+
+    private record Registro(long numero, String texto) {
+        static final Registro FIN = new Registro(-1, null);
+    }
+
+    // Registro convertido: entidad válida, o null con los errores de formato/validación
+    private record Fila(Registro registro, Object entidad, List<String> errores) {
+        static final Fila FIN = new Fila(Registro.FIN, null, List.of());
+    }
+
+    // Estado de una importación; el punto de control y los contadores se guardan en BD
+    // con cada bloque para poder reanudar
+    private static final class Importacion {
+
+        final String id;
+        final Tipo tipo;
+        final Formato formato;
+        final Path carpeta;
+        final Instant inicio = Instant.now();
+        final AtomicLong leidos = new AtomicLong();
+
+        // Solo los modifica el escritor
+        volatile long guardados;
+        volatile long rechazados;
+        volatile long checkpoint;
+        long bytesRechazados;
+
+        volatile EstadoImportacion.Estado estado = EstadoImportacion.Estado.EN_CURSO;
+        volatile String error;
+        volatile Instant fin;
+        volatile IOException errorLectura;
+
+        Importacion(String id, Tipo tipo, Formato formato, Path carpeta) {
+            this.id = id;
+            this.tipo = tipo;
+            this.formato = formato;
+            this.carpeta = carpeta;
+        }
+
+        EstadoImportacion estado() {
+            return new EstadoImportacion(id, tipo.name().toLowerCase(Locale.ROOT), estado, leidos.get(),
+                    guardados, rechazados, checkpoint, error, inicio, fin);
+        }
+
+        // Al reanudar se descarta lo escrito en rechazados después del último punto de control
+        Writer abrirRechazados() throws IOException {
+            Path ruta = carpeta.resolve(RECHAZADOS);
+            if (Files.exists(ruta)) {
+                try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.WRITE)) {
+                    canal.truncate(bytesRechazados);
+                }
+            }
+            Writer salida = Files.newBufferedWriter(ruta, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            if (Files.size(ruta) == 0) {
+                salida.write("registro,errores,contenido\n");
+            }
+            return salida;
+        }
+
+        ProgresoImportacion progreso() {
+            return new ProgresoImportacion(id, checkpoint, guardados, rechazados, bytesRechazados);
+        }
+
+        // Tras el commit de un bloque, o al reanudar con el último punto de control de la BD
+        void restaurar(ProgresoImportacion progreso) {
+            checkpoint = progreso.getCheckpoint();
+            guardados = progreso.getGuardados();
+            rechazados = progreso.getRechazados();
+            bytesRechazados = progreso.getBytesRechazados();
+            leidos.set(Math.max(leidos.get(), checkpoint));
+        }
+
+        void terminar(Exception e) {
+            estado = e == null ? EstadoImportacion.Estado.COMPLETADA : EstadoImportacion.Estado.FALLIDA;
+            error = e == null ? null : e.getMessage();
+            fin = Instant.now();
+        }
+
+        // Escritura atómica (fichero temporal + move) para no dejar un control a medias
+        void guardarControl() throws IOException {
+            Properties control = new Properties();
+            control.setProperty("tipo", tipo.name());
+            control.setProperty("formato", formato.name());
+            Path temporal = carpeta.resolve(CONTROL + ".tmp");
+            try (Writer salida = Files.newBufferedWriter(temporal, StandardCharsets.UTF_8)) {
+                control.store(salida, "Importación " + id);
+            }
+            Files.move(temporal, carpeta.resolve(CONTROL),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        static Importacion desdeControl(String id, Path carpeta) throws IOException {
+            Properties control = new Properties();
+            try (Reader entrada = Files.newBufferedReader(carpeta.resolve(CONTROL), StandardCharsets.UTF_8)) {
+                control.load(entrada);
+            }
+            Importacion importacion = new Importacion(id, Tipo.valueOf(control.getProperty("tipo")),
+                    Formato.valueOf(control.getProperty("formato")), carpeta);
+            // Controles anteriores a la tabla importaciones: el punto de control estaba en el fichero
+            // (si la importación tiene fila en BD, reanudar() lo sustituye por el de la BD)
+            importacion.restaurar(new ProgresoImportacion(id,
+                    Long.parseLong(control.getProperty("checkpoint", "0")),
+                    Long.parseLong(control.getProperty("guardados", "0")),
+                    Long.parseLong(control.getProperty("rechazados", "0")),
+                    Long.parseLong(control.getProperty("bytesRechazados", "0"))));
+            return importacion;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.aura.reviews.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aura.reviews.repository.ClienteRepository;
+
+// Índice en memoria para la búsqueda de clientes (misma semántica que LIKE '%q%'
+// sobre nombre o género, pero sin tildes ni mayúsculas):
+// - nombre: trigramas -> ids; los candidatos se confirman con contains()
+// - género: diccionario género -> ids (son pocos valores)
+@Component
+public class IndiceBusquedaClientes {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceBusquedaClientes.class);
+
+    private static final int N = 3;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ReentrantReadWriteLock cerrojo = new ReentrantReadWriteLock();
+    private final Map<Long, String> nombres = new HashMap<>();
+    private final Map<String, Set<Long>> trigramas = new HashMap<>();
+    private final Map<Long, String> generos = new HashMap<>();
+    private final Map<String, Set<Long>> porGenero = new HashMap<>();
+
+    // Ids modificados mientras se hace la carga inicial (la carga no debe pisarlos)
+    private final Set<Long> modificadosDuranteCarga = new HashSet<>();
+    private volatile boolean cargando = false;
+    private volatile boolean listo = false;
+
+    public boolean estaListo() {
+        return listo;
+    }
+
+    // Reconstruye el índice desde la BD (al arrancar, o tras escribir fuera de los servicios).
+    // Mientras tanto las búsquedas usan LIKE en BD.
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        cerrojo.writeLock().lock();
+        try {
+            listo = false;
+            cargando = true;
+            nombres.clear();
+            trigramas.clear();
+            generos.clear();
+            porGenero.clear();
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+        TransactionTemplate plantilla = new TransactionTemplate(transactionManager);
+        plantilla.setReadOnly(true);
+        int[] total = {0};
+        // Desde la primaria: en una réplica con retraso podrían faltar altas ya confirmadas
+        try (LecturasEnPrimaria.Ambito primaria = LecturasEnPrimaria.abrir()) {
+            plantilla.executeWithoutResult(estado -> {
+                try (Stream<Object[]> filas = clienteRepository.streamNombresYGeneros()) {
+                    filas.forEach(fila -> {
+                        Long id = (Long) fila[0];
+                        cerrojo.writeLock().lock();
+                        try {
+                            if (!modificadosDuranteCarga.contains(id)) {
+                                indexarSinBloqueo(id, (String) fila[1], (String) fila[2]);
+                                total[0]++;
+                            }
+                        } finally {
+                            cerrojo.writeLock().unlock();
+                        }
+                    });
+                }
+            });
+        }
+        cerrojo.writeLock().lock();
+        try {
+            modificadosDuranteCarga.clear();
+            cargando = false;
+            listo = true;
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+        log.info("Índice de búsqueda de clientes cargado ({} clientes)", total[0]);
+    }
+
+    // Alta o modificación, aplicada tras el commit
+    public void indexar(Long id, String nombre, String genero) {
+        TrasCommit.ejecutar(() -> {
+            cerrojo.writeLock().lock();
+            try {
+                marcarSiCargando(id);
+                indexarSinBloqueo(id, nombre, genero);
+            } finally {
+                cerrojo.writeLock().unlock();
+            }
+        });
+    }
+
+    // Baja, aplicada tras el commit
+    public void eliminar(Long id) {
+        TrasCommit.ejecutar(() -> descartar(id));
+    }
+
+    // Ids que una página no encontró: se quitan si tampoco están en la primaria (una réplica
+    // con retraso aún puede no tener las altas recientes). Transacción nueva de escritura: va
+    // a la primaria aunque la página se esté leyendo de una réplica
+    public void descartarAusentes(List<Long> ids) {
+        TransactionTemplate plantilla = new TransactionTemplate(transactionManager);
+        plantilla.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Set<Long> existentes = new HashSet<>(plantilla.execute(estado -> clienteRepository.buscarIdsExistentes(ids)));
+        ids.stream().filter(id -> !existentes.contains(id)).forEach(this::descartar);
+    }
+
+    // Elimina ids que ya no existen en la BD (detectados al cargar una página)
+    public void descartar(Long id) {
+        cerrojo.writeLock().lock();
+        try {
+            marcarSiCargando(id);
+            eliminarSinBloqueo(id);
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    // Ids (ascendentes) cuyo nombre o género contiene el texto buscado
+    public List<Long> buscar(String consulta) {
+        String texto = NormalizadorTexto.normalizar(consulta).trim();
+        TreeSet<Long> ids = new TreeSet<>();
+
+        cerrojo.readLock().lock();
+        try {
+            porGenero.forEach((genero, delGenero) -> {
+                if (genero.contains(texto)) {
+                    ids.addAll(delGenero);
+                }
+            });
+            for (Long candidato : candidatosPorNombre(texto)) {
+                if (nombres.get(candidato).contains(texto)) {
+                    ids.add(candidato);
+                }
+            }
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+        return new ArrayList<>(ids);
+    }
+
+    // Intersección de las listas de cada trigrama, empezando por la más corta.
+    // Con menos de 3 caracteres no hay trigramas: se revisan todos los nombres.
+    private Set<Long> candidatosPorNombre(String texto) {
+        if (texto.length() < N) {
+            return nombres.keySet();
+        }
+        List<Set<Long>> listas = new ArrayList<>();
+        for (String trigrama : trigramasDe(texto)) {
+            Set<Long> lista = trigramas.get(trigrama);
+            if (lista == null) {
+                return Set.of();
+            }
+            listas.add(lista);
+        }
+        listas.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        Set<Long> candidatos = new HashSet<>(listas.get(0));
+        for (int i = 1; i < listas.size() && !candidatos.isEmpty(); i++) {
+            candidatos.retainAll(listas.get(i));
+        }
+        return candidatos;
+    }
+
+    private static Set<String> trigramasDe(String texto) {
+        Set<String> resultado = new HashSet<>();
+        for (int i = 0; i + N <= texto.length(); i++) {
+            resultado.add(texto.substring(i, i + N));
+        }
+        return resultado;
+    }
+
+    private void indexarSinBloqueo(Long id, String nombre, String genero) {
+        eliminarSinBloqueo(id);
+        String nombreNormalizado = NormalizadorTexto.normalizar(nombre);
+        nombres.put(id, nombreNormalizado);
+        for (String trigrama : trigramasDe(nombreNormalizado)) {
+            trigramas.computeIfAbsent(trigrama, t -> new HashSet<>()).add(id);
+        }
+        if (genero != null) {
+            String generoNormalizado = NormalizadorTexto.normalizar(genero);
+            generos.put(id, generoNormalizado);
+            porGenero.computeIfAbsent(generoNormalizado, g -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void eliminarSinBloqueo(Long id) {
+        String nombre = nombres.remove(id);
+        if (nombre != null) {
+            for (String trigrama : trigramasDe(nombre)) {
+                quitar(trigramas, trigrama, id);
+            }
+        }
+        String genero = generos.remove(id);
+        if (genero != null) {
+            quitar(porGenero, genero, id);
+        }
+    }
+
+    private static void quitar(Map<String, Set<Long>> mapa, String clave, Long id) {
+        Set<Long> ids = mapa.get(clave);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                mapa.remove(clave);
+            }
+        }
+    }
+
+    private void marcarSiCargando(Long id) {
+        if (cargando) {
+            modificadosDuranteCarga.add(id);
+        }
+    }
+}
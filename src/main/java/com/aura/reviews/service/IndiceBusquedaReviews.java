@@ -0,0 +1,243 @@
+package com.aura.reviews.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aura.reviews.repository.ReviewRepository;
+
+// Índice invertido en memoria sobre Review.descripcion.
+// Término normalizado -> (id review -> frecuencia); los términos de la consulta
+// se buscan como prefijo y los resultados se ordenan por relevancia TF-IDF.
+@Component
+public class IndiceBusquedaReviews {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceBusquedaReviews.class);
+
+    // Una coincidencia exacta del término pesa más que una por prefijo
+    private static final double PESO_PREFIJO = 0.5;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ReentrantReadWriteLock cerrojo = new ReentrantReadWriteLock();
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Map<String, Integer>> documentos = new HashMap<>();
+    private final Map<Long, Integer> longitudes = new HashMap<>();
+
+    // Ids modificados mientras se hace la carga inicial (la carga no debe pisarlos)
+    private final Set<Long> modificadosDuranteCarga = new HashSet<>();
+    private volatile boolean cargando = false;
+    private volatile boolean listo = false;
+
+    public boolean estaListo() {
+        return listo;
+    }
+
+    // Reconstruye el índice desde la BD (al arrancar, o tras escribir fuera de los servicios).
+    // Mientras tanto las búsquedas usan LIKE en BD.
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        cerrojo.writeLock().lock();
+        try {
+            listo = false;
+            cargando = true;
+            postings.clear();
+            documentos.clear();
+            longitudes.clear();
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+        TransactionTemplate plantilla = new TransactionTemplate(transactionManager);
+        plantilla.setReadOnly(true);
+        int[] total = {0};
+        // Desde la primaria: en una réplica con retraso podrían faltar altas ya confirmadas
+        try (LecturasEnPrimaria.Ambito primaria = LecturasEnPrimaria.abrir()) {
+            plantilla.executeWithoutResult(estado -> {
+                try (Stream<Object[]> textos = reviewRepository.streamTextos()) {
+                    textos.forEach(fila -> {
+                        Long id = (Long) fila[0];
+                        cerrojo.writeLock().lock();
+                        try {
+                            if (!modificadosDuranteCarga.contains(id)) {
+                                indexarSinBloqueo(id, (String) fila[1]);
+                                total[0]++;
+                            }
+                        } finally {
+                            cerrojo.writeLock().unlock();
+                        }
+                    });
+                }
+            });
+        }
+        cerrojo.writeLock().lock();
+        try {
+            modificadosDuranteCarga.clear();
+            cargando = false;
+            listo = true;
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+        log.info("Índice de búsqueda de reviews cargado ({} documentos)", total[0]);
+    }
+
+    // Alta o modificación, aplicada tras el commit
+    public void indexar(Long id, String descripcion) {
+        TrasCommit.ejecutar(() -> {
+            cerrojo.writeLock().lock();
+            try {
+                marcarSiCargando(id);
+                indexarSinBloqueo(id, descripcion);
+            } finally {
+                cerrojo.writeLock().unlock();
+            }
+        });
+    }
+
+    // Baja, aplicada tras el commit
+    public void eliminar(Long id) {
+        TrasCommit.ejecutar(() -> descartar(id));
+    }
+
+    // Ids que una página no encontró: se quitan si tampoco están en la primaria (una réplica
+    // con retraso aún puede no tener las altas recientes). Transacción nueva de escritura: va
+    // a la primaria aunque la página se esté leyendo de una réplica
+    public void descartarAusentes(List<Long> ids) {
+        TransactionTemplate plantilla = new TransactionTemplate(transactionManager);
+        plantilla.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Set<Long> existentes = new HashSet<>(plantilla.execute(estado -> reviewRepository.buscarIdsExistentes(ids)));
+        ids.stream().filter(id -> !existentes.contains(id)).forEach(this::descartar);
+    }
+
+    // Elimina ids que ya no existen en la BD (detectados al cargar una página)
+    public void descartar(Long id) {
+        cerrojo.writeLock().lock();
+        try {
+            marcarSiCargando(id);
+            eliminarSinBloqueo(id);
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    // Ids que contienen todos los términos de la consulta, de mayor a menor relevancia.
+    // Devuelve null si la consulta no tiene términos indexables (solo palabras vacías).
+    public List<Long> buscar(String consulta) {
+        List<String> terminos = NormalizadorTexto.tokenizar(consulta);
+        if (terminos.isEmpty()) {
+            return null;
+        }
+
+        cerrojo.readLock().lock();
+        try {
+            Map<Long, Double> puntuaciones = null;
+            for (String termino : terminos) {
+                Map<Long, Double> delTermino = puntuarTermino(termino);
+                if (puntuaciones == null) {
+                    puntuaciones = delTermino;
+                } else {
+                    // AND: solo siguen los documentos que también contienen este término
+                    Map<Long, Double> interseccion = new HashMap<>();
+                    for (Map.Entry<Long, Double> entrada : puntuaciones.entrySet()) {
+                        Double otra = delTermino.get(entrada.getKey());
+                        if (otra != null) {
+                            interseccion.put(entrada.getKey(), entrada.getValue() + otra);
+                        }
+                    }
+                    puntuaciones = interseccion;
+                }
+                if (puntuaciones.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            Map<Long, Double> resultado = puntuaciones;
+            List<Long> ids = new ArrayList<>(resultado.keySet());
+            ids.sort(Comparator.comparing((Long id) -> resultado.get(id)).reversed()
+                    .thenComparing(Comparator.reverseOrder()));
+            return ids;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    // tf * idf normalizado por la longitud del documento, sumado sobre los términos
+    // del índice que empiezan por 'termino'
+    private Map<Long, Double> puntuarTermino(String termino) {
+        Map<Long, Double> puntuaciones = new HashMap<>();
+        int totalDocumentos = Math.max(documentos.size(), 1);
+        NavigableMap<String, Map<Long, Integer>> coincidencias =
+                postings.subMap(termino, true, termino + Character.MAX_VALUE, false);
+
+        for (Map.Entry<String, Map<Long, Integer>> entrada : coincidencias.entrySet()) {
+            Map<Long, Integer> lista = entrada.getValue();
+            double idf = Math.log(1.0 + (double) totalDocumentos / lista.size());
+            double peso = entrada.getKey().equals(termino) ? 1.0 : PESO_PREFIJO;
+            for (Map.Entry<Long, Integer> posting : lista.entrySet()) {
+                double puntuacion = peso * posting.getValue() * idf / Math.sqrt(longitudes.get(posting.getKey()));
+                puntuaciones.merge(posting.getKey(), puntuacion, Double::sum);
+            }
+        }
+        return puntuaciones;
+    }
+
+    private void indexarSinBloqueo(Long id, String descripcion) {
+        eliminarSinBloqueo(id);
+        List<String> terminos = NormalizadorTexto.tokenizar(descripcion);
+        if (terminos.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> frecuencias = new HashMap<>();
+        for (String termino : terminos) {
+            frecuencias.merge(termino, 1, Integer::sum);
+        }
+        documentos.put(id, frecuencias);
+        longitudes.put(id, terminos.size());
+        frecuencias.forEach((termino, frecuencia) ->
+                postings.computeIfAbsent(termino, t -> new HashMap<>()).put(id, frecuencia));
+    }
+
+    private void eliminarSinBloqueo(Long id) {
+        Map<String, Integer> anteriores = documentos.remove(id);
+        longitudes.remove(id);
+        if (anteriores == null) {
+            return;
+        }
+        for (String termino : anteriores.keySet()) {
+            Map<Long, Integer> lista = postings.get(termino);
+            if (lista != null) {
+                lista.remove(id);
+                if (lista.isEmpty()) {
+                    postings.remove(termino);
+                }
+            }
+        }
+    }
+
+    private void marcarSiCargando(Long id) {
+        if (cargando) {
+            modificadosDuranteCarga.add(id);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.aura.reviews.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.aura.reviews.dto.EstadisticasClientes;
+import com.aura.reviews.entity.FranjaEdad;
+import com.aura.reviews.repository.ClienteRepository;
+
+import io.micrometer.core.annotation.Timed;
+
+// Servicio de informes: agrega los datos en la BD sin cargar entidades
+@Service
+@Timed(value = "aura.servicio", histogram = true)
+public class InformeService {
+
+    public static final String CON_INTOLERANCIA = "Con intolerancia";
+    public static final String SIN_INTOLERANCIA = "Sin intolerancia";
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private EstadisticasCache estadisticasCache;
+
+    // Lee de la caché en memoria; hasta que esté cargada, consulta la BD
+    @Transactional(readOnly = true)
+    public EstadisticasClientes obtenerEstadisticasClientes() {
+        if (estadisticasCache.estaInicializada()) {
+            return estadisticasCache.estadisticasClientes();
+        }
+        return calcularEstadisticasClientes();
+    }
+
+    // Una sola consulta GROUP BY; el resultado tiene como mucho géneros x franjas x 2 filas
+    @Transactional(readOnly = true)
+    public EstadisticasClientes calcularEstadisticasClientes() {
+        Map<String, Long> porGenero = new HashMap<>();
+        Map<String, Long> porFranjaEdad = new LinkedHashMap<>();
+        Map<String, Long> porIntolerancia = new LinkedHashMap<>();
+
+        for (String franja : FranjaEdad.ETIQUETAS) {
+            porFranjaEdad.put(franja, 0L);
+        }
+        porIntolerancia.put(CON_INTOLERANCIA, 0L);
+        porIntolerancia.put(SIN_INTOLERANCIA, 0L);
+
+        List<Object[]> resultados = clienteRepository.contarPorGeneroFranjaEdadEIntolerancia();
+        for (Object[] resultado : resultados) {
+            String genero = (String) resultado[0];
+            String franja = (String) resultado[1];
+            Boolean intolerancia = (Boolean) resultado[2];
+            Long cantidad = (Long) resultado[3];
+
+            porGenero.merge(genero, cantidad, Long::sum);
+            porFranjaEdad.merge(franja, cantidad, Long::sum);
+            porIntolerancia.merge(Boolean.TRUE.equals(intolerancia) ? CON_INTOLERANCIA : SIN_INTOLERANCIA,
+                    cantidad, Long::sum);
+        }
+
+        return new EstadisticasClientes(porGenero, porFranjaEdad, porIntolerancia);
+    }
+}
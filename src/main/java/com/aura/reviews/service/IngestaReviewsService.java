@@ -0,0 +1,228 @@
+package com.aura.reviews.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.aura.reviews.dto.EstadoSeguimiento;
+import com.aura.reviews.dto.RespuestaLote;
+import com.aura.reviews.dto.ResultadoLote;
+import com.aura.reviews.entity.Cliente;
+import com.aura.reviews.entity.Review;
+import com.aura.reviews.entity.ReviewRechazada;
+import com.aura.reviews.repository.ReviewRechazadaRepository;
+import com.aura.reviews.repository.ReviewRepository;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import tools.jackson.databind.ObjectMapper;
+
+// Ingesta asíncrona de reviews (aura.ingesta.asincrona=true). El alta se añade al diario en
+// disco (DiarioEscritura) y se responde 202 con un id de seguimiento, sin esperar a la BD.
+// Un escritor en segundo plano vuelca el diario por bloques con LoteService y confirma la
+// posición tras cada bloque. Tras un reinicio se reaplica desde la última posición
+// confirmada: las reviews cuyo id de seguimiento ya está en BD se saltan. Las rechazadas se
+// guardan en reviews_rechazadas antes de confirmar, así su estado sobrevive al reinicio.
+@Service
+@Timed(value = "aura.servicio", histogram = true)
+public class IngestaReviewsService {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestaReviewsService.class);
+
+    private static final int TAMANO_BLOQUE = 500;
+    private static final long REINTENTO_INICIAL_MS = 500;
+    private static final long REINTENTO_MAXIMO_MS = 30_000;
+
+    // Alta tal como se guarda en el diario
+    record Pendiente(String idSeguimiento, String descripcion, Integer valoracion, Long clienteId) {
+
+        Review aReview() {
+            Cliente cliente = null;
+            if (clienteId != null) {
+                cliente = new Cliente();
+                cliente.setId(clienteId);
+            }
+            Review review = new Review(descripcion, valoracion, cliente);
+            review.setIdSeguimiento(idSeguimiento);
+            return review;
+        }
+    }
+
+    @Value("${aura.ingesta.asincrona:false}")
+    private boolean activa;
+
+    @Value("${aura.ingesta.directorio}")
+    private String directorio;
+
+    @Value("${aura.ingesta.tamano-segmento:16MB}")
+    private DataSize tamanoSegmento;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean hilosVirtuales;
+
+    @Autowired
+    private LoteService loteService;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private ReviewRechazadaRepository reviewRechazadaRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private DiarioEscritura diario;
+    private Thread escritor;
+    private volatile boolean detenida;
+
+    // Aceptadas que aún no se han volcado (incluidas las del diario al arrancar)
+    private final Set<String> pendientes = ConcurrentHashMap.newKeySet();
+
+    public boolean estaActiva() {
+        return activa;
+    }
+
+    // Se abre antes de que Tomcat acepte peticiones; el escritor arranca con la aplicación lista
+    @PostConstruct
+    public void abrir() throws IOException {
+        if (!activa) {
+            return;
+        }
+        diario = new DiarioEscritura(Path.of(directorio), (int) tamanoSegmento.toBytes());
+        DiarioEscritura.Posicion desde = diario.confirmada();
+        DiarioEscritura.Lectura lectura;
+        while (!(lectura = diario.leer(desde, TAMANO_BLOQUE)).registros().isEmpty()) {
+            lectura.registros().forEach(datos -> pendientes.add(leer(datos).idSeguimiento()));
+            desde = lectura.siguiente();
+        }
+        if (!pendientes.isEmpty()) {
+            log.info("Diario de reviews con {} altas sin aplicar; se vuelcan al arrancar", pendientes.size());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void arrancarEscritor() {
+        if (!activa) {
+            return;
+        }
+        detenida = false;
+        Thread.Builder constructor = hilosVirtuales ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        escritor = constructor.name("aura-ingesta-reviews").start(this::volcar);
+    }
+
+    // Termina el bloque en curso; lo no confirmado se reaplica en el siguiente arranque
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        detenida = true;
+        if (escritor != null) {
+            escritor.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    // La review ya viene validada (@Valid); que el cliente exista y no tenga otra review se
+    // comprueba al volcarla, y si falla queda RECHAZADA en el seguimiento
+    public EstadoSeguimiento encolar(Review review) throws IOException {
+        String idSeguimiento = UUID.randomUUID().toString();
+        Long clienteId = review.getCliente() != null ? review.getCliente().getId() : null;
+        byte[] datos = objectMapper.writeValueAsBytes(
+                new Pendiente(idSeguimiento, review.getDescripcion(), review.getValoracion(), clienteId));
+        // Se marca antes de añadirla: el escritor puede volcarla antes de que anadir() vuelva
+        pendientes.add(idSeguimiento);
+        try {
+            diario.anadir(datos);
+        } catch (IOException | RuntimeException e) {
+            pendientes.remove(idSeguimiento);
+            throw e;
+        }
+        return EstadoSeguimiento.pendiente(idSeguimiento);
+    }
+
+    public Optional<EstadoSeguimiento> consultar(String idSeguimiento) {
+        if (pendientes.contains(idSeguimiento)) {
+            return Optional.of(EstadoSeguimiento.pendiente(idSeguimiento));
+        }
+        Optional<EstadoSeguimiento> guardada = reviewRepository.buscarIdPorIdSeguimiento(idSeguimiento)
+                .map(id -> new EstadoSeguimiento(idSeguimiento, EstadoSeguimiento.Estado.GUARDADA, id, List.of()));
+        if (guardada.isPresent()) {
+            return guardada;
+        }
+        return reviewRechazadaRepository.findById(idSeguimiento)
+                .map(rechazada -> new EstadoSeguimiento(idSeguimiento, EstadoSeguimiento.Estado.RECHAZADA, null,
+                        rechazada.getErrores()));
+    }
+
+    // Si la BD falla se reintenta el mismo bloque con espera creciente: sigue en el diario
+    private void volcar() {
+        DiarioEscritura.Posicion desde = diario.confirmada();
+        long espera = REINTENTO_INICIAL_MS;
+        while (!detenida) {
+            try {
+                DiarioEscritura.Lectura lectura = diario.leer(desde, TAMANO_BLOQUE);
+                if (lectura.registros().isEmpty()) {
+                    diario.esperar(desde, 1, TimeUnit.SECONDS);
+                    continue;
+                }
+                aplicar(lectura.registros());
+                diario.confirmar(lectura.siguiente());
+                desde = lectura.siguiente();
+                espera = REINTENTO_INICIAL_MS;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.warn("No se pudo volcar el diario de reviews, reintento en {} ms: {}", espera, e.getMessage());
+                try {
+                    Thread.sleep(espera);
+                } catch (InterruptedException interrumpido) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                espera = Math.min(espera * 2, REINTENTO_MAXIMO_MS);
+            }
+        }
+    }
+
+    private void aplicar(List<byte[]> registros) {
+        List<Pendiente> bloque = registros.stream().map(this::leer).toList();
+        Set<String> yaGuardadas = new HashSet<>(reviewRepository.buscarIdsSeguimientoExistentes(
+                bloque.stream().map(Pendiente::idSeguimiento).toList()));
+        List<Review> reviews = bloque.stream()
+                .filter(pendiente -> !yaGuardadas.contains(pendiente.idSeguimiento()))
+                .map(Pendiente::aReview)
+                .toList();
+
+        // Rechazadas: cliente inexistente o que ya tiene review. Al reaplicar el bloque se vuelven
+        // a rechazar y se sobrescriben (mismo id)
+        RespuestaLote respuesta = loteService.guardarReviews(reviews, true);
+        List<ReviewRechazada> rechazadas = new ArrayList<>();
+        for (ResultadoLote resultado : respuesta.resultados()) {
+            if (resultado.estado() == ResultadoLote.Estado.ERROR) {
+                rechazadas.add(new ReviewRechazada(reviews.get(resultado.indice()).getIdSeguimiento(), resultado.errores()));
+            }
+        }
+        reviewRechazadaRepository.saveAll(rechazadas);
+        bloque.forEach(pendiente -> pendientes.remove(pendiente.idSeguimiento()));
+    }
+
+    private Pendiente leer(byte[] datos) {
+        return objectMapper.readValue(datos, Pendiente.class);
+    }
+}
@@ -0,0 +1,112 @@
+package com.aura.reviews.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Lee un fichero de importación registro a registro, sin cargarlo entero en memoria.
+// NDJSON: una línea por registro. CSV (RFC 4180): campos entre comillas con "" como escape
+// y saltos de línea dentro de las comillas.
+final class LectorRegistros implements Closeable {
+
+    private static final char BOM = '\uFEFF';
+
+    private final BufferedReader lector;
+    private final boolean csv;
+    private boolean primero = true;
+
+    LectorRegistros(BufferedReader lector, boolean csv) {
+        this.lector = lector;
+        this.csv = csv;
+    }
+
+    // Siguiente registro en texto, o null al terminar. Las líneas en blanco se ignoran.
+    String siguiente() throws IOException {
+        String linea;
+        do {
+            linea = lector.readLine();
+            if (linea == null) {
+                return null;
+            }
+        } while (linea.isBlank());
+        if (primero) {
+            primero = false;
+            if (!linea.isEmpty() && linea.charAt(0) == BOM) {
+                linea = linea.substring(1);
+            }
+        }
+        if (!csv) {
+            return linea;
+        }
+
+        StringBuilder registro = new StringBuilder(linea);
+        while (comillasAbiertas(registro)) {
+            String continuacion = lector.readLine();
+            if (continuacion == null) {
+                break;
+            }
+            registro.append('\n').append(continuacion);
+        }
+        return registro.toString();
+    }
+
+    // Campos de un registro CSV; IllegalArgumentException si hay comillas sin cerrar
+    static List<String> campos(String registro) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < registro.length(); i++) {
+            char c = registro.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < registro.length() && registro.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        if (entreComillas) {
+            throw new IllegalArgumentException("comillas sin cerrar");
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    // Un campo CSV entre comillas si lo necesita
+    static String escapar(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.contains(",") || valor.contains("\"") || valor.contains("\n") || valor.contains("\r")) {
+            return "\"" + valor.replace("\"", "\"\"") + "\"";
+        }
+        return valor;
+    }
+
+    private static boolean comillasAbiertas(CharSequence texto) {
+        int comillas = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) == '"') {
+                comillas++;
+            }
+        }
+        return comillas % 2 != 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lector.close();
+    }
+}
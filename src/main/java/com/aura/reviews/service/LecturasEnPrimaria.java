@@ -0,0 +1,42 @@
+package com.aura.reviews.service;
+
+// Manda a la BD primaria las lecturas del hilo actual aunque la transacción sea de solo
+// lectura (con réplicas configuradas, ver DataSourceEnrutado). Para la ventana de lectura
+// tras escritura y para las cargas que no admiten el retraso de una réplica:
+//   try (LecturasEnPrimaria.Ambito primaria = LecturasEnPrimaria.abrir()) { ... }
+public final class LecturasEnPrimaria {
+
+    private static final ThreadLocal<Boolean> ACTIVAS = new ThreadLocal<>();
+
+    // Deja el hilo como estaba al abrirlo (los ámbitos se pueden anidar)
+    public static final class Ambito implements AutoCloseable {
+
+        private final Boolean anterior;
+
+        private Ambito(Boolean anterior) {
+            this.anterior = anterior;
+        }
+
+        @Override
+        public void close() {
+            if (anterior == null) {
+                ACTIVAS.remove();
+            } else {
+                ACTIVAS.set(anterior);
+            }
+        }
+    }
+
+    private LecturasEnPrimaria() {
+    }
+
+    public static Ambito abrir() {
+        Ambito ambito = new Ambito(ACTIVAS.get());
+        ACTIVAS.set(Boolean.TRUE);
+        return ambito;
+    }
+
+    public static boolean activas() {
+        return Boolean.TRUE.equals(ACTIVAS.get());
+    }
+}
@@ -0,0 +1,310 @@
+package com.aura.reviews.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.aura.reviews.dto.DatosEstadisticosCliente;
+import com.aura.reviews.dto.RespuestaLote;
+import com.aura.reviews.dto.ResultadoLote;
+import com.aura.reviews.entity.Cliente;
+import com.aura.reviews.entity.Review;
+import com.aura.reviews.repository.ClienteRepository;
+import com.aura.reviews.repository.LoteJdbcRepository;
+import com.aura.reviews.repository.ReviewRepository;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+// Altas y modificaciones por lotes (API /batch). Un elemento con id se actualiza y sin id se crea.
+// Se validan todos, las referencias se resuelven con una consulta IN y se escribe con
+// JDBC batching en bloques de una transacción cada uno.
+@Service
+@Timed(value = "aura.servicio", histogram = true)
+public class LoteService {
+
+    public static final int TAMANO_MAXIMO = 5000;
+
+    // Elementos por transacción: si un bloque falla en BD, solo sus elementos quedan con error
+    private static final int TAMANO_BLOQUE = 500;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private LoteJdbcRepository loteJdbcRepository;
+
+    @Autowired
+    private EstadisticasCache estadisticasCache;
+
+    @Autowired
+    private IndiceBusquedaClientes indiceBusquedaClientes;
+
+    @Autowired
+    private IndiceBusquedaReviews indiceBusquedaReviews;
+
+    @Autowired
+    private TokenCambios tokenCambios;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public RespuestaLote guardarClientes(List<Cliente> clientes) {
+        return guardarClientes(clientes, false);
+    }
+
+    public RespuestaLote guardarReviews(List<Review> reviews) {
+        return guardarReviews(reviews, false);
+    }
+
+    // propagarErroresBd: un fallo de BD se lanza en vez de marcar el bloque como erróneo
+    // (la importación masiva se detiene y se puede reanudar desde el último bloque confirmado)
+    RespuestaLote guardarClientes(List<Cliente> clientes, boolean propagarErroresBd) {
+        ResultadoLote[] resultados = new ResultadoLote[clientes.size()];
+        Long[] idsOriginales = idsOriginales(clientes, Cliente::getId);
+
+        // Valores previos de los clientes a modificar (estadísticas), en una consulta
+        Map<Long, DatosEstadisticosCliente> anteriores = new HashMap<>();
+        Set<Long> ids = idsNoNulos(idsOriginales);
+        if (!ids.isEmpty()) {
+            for (Object[] fila : clienteRepository.buscarDatosEstadisticosPorIds(ids)) {
+                anteriores.put((Long) fila[0],
+                        new DatosEstadisticosCliente((String) fila[1], (Integer) fila[2], (Boolean) fila[3]));
+            }
+        }
+
+        List<Integer> validos = new ArrayList<>();
+        Set<Long> vistos = new HashSet<>();
+        for (int i = 0; i < clientes.size(); i++) {
+            Long id = idsOriginales[i];
+            List<String> errores = validar(clientes.get(i));
+            if (id != null && !anteriores.containsKey(id)) {
+                errores.add("Cliente no encontrado con ID: " + id);
+            } else if (id != null && vistos.contains(id)) {
+                errores.add("ID repetido en el lote: " + id);
+            }
+            if (errores.isEmpty()) {
+                validos.add(i);
+                if (id != null) {
+                    vistos.add(id);
+                }
+            } else {
+                resultados[i] = ResultadoLote.error(i, id, errores);
+            }
+        }
+
+        porBloques(validos, resultados, idsOriginales, propagarErroresBd, bloque -> {
+            List<Cliente> nuevos = new ArrayList<>();
+            List<Cliente> modificados = new ArrayList<>();
+            for (Integer i : bloque) {
+                (idsOriginales[i] == null ? nuevos : modificados).add(clientes.get(i));
+            }
+            List<Long> idsGenerados = loteJdbcRepository.insertarClientes(nuevos);
+            for (int k = 0; k < nuevos.size(); k++) {
+                nuevos.get(k).setId(idsGenerados.get(k));
+            }
+            loteJdbcRepository.actualizarClientes(modificados);
+
+            for (Integer i : bloque) {
+                Cliente cliente = clientes.get(i);
+                boolean nuevo = idsOriginales[i] == null;
+                estadisticasCache.actualizarCliente(nuevo ? null : anteriores.get(cliente.getId()),
+                        DatosEstadisticosCliente.de(cliente));
+                indiceBusquedaClientes.indexar(cliente.getId(), cliente.getNombre(), cliente.getGenero());
+                resultados[i] = ResultadoLote.guardado(i, cliente.getId(), nuevo);
+            }
+            desalojarTrasCommit(Cliente.class, modificados.stream().map(Cliente::getId).toList());
+            tokenCambios.registrarCambio(TokenCambios.Tabla.CLIENTES);
+        });
+        return RespuestaLote.de(List.of(resultados));
+    }
+
+    RespuestaLote guardarReviews(List<Review> reviews, boolean propagarErroresBd) {
+        ResultadoLote[] resultados = new ResultadoLote[reviews.size()];
+        Long[] idsOriginales = idsOriginales(reviews, Review::getId);
+
+        // Reviews a modificar: valoración y cliente actuales, en una consulta
+        Map<Long, Integer> valoracionesActuales = new HashMap<>();
+        Map<Long, Long> clientesActuales = new HashMap<>();
+        Set<Long> ids = idsNoNulos(idsOriginales);
+        if (!ids.isEmpty()) {
+            for (Object[] fila : reviewRepository.buscarDatosPorIds(ids)) {
+                valoracionesActuales.put((Long) fila[0], (Integer) fila[1]);
+                clientesActuales.put((Long) fila[0], (Long) fila[2]);
+            }
+        }
+
+        // Clientes referenciados: id cliente -> id de su review actual (null si no tiene), en una consulta
+        Map<Long, Long> reviewDeCliente = new HashMap<>();
+        Set<Long> idsClientes = new HashSet<>();
+        for (Review review : reviews) {
+            if (review != null && review.getCliente() != null && review.getCliente().getId() != null) {
+                idsClientes.add(review.getCliente().getId());
+            }
+        }
+        if (!idsClientes.isEmpty()) {
+            for (Object[] fila : clienteRepository.buscarIdsDeReview(idsClientes)) {
+                reviewDeCliente.put((Long) fila[0], (Long) fila[1]);
+            }
+        }
+
+        List<Integer> validos = new ArrayList<>();
+        Set<Long> vistos = new HashSet<>();
+        Set<Long> clientesAsignados = new HashSet<>();
+        for (int i = 0; i < reviews.size(); i++) {
+            Review review = reviews.get(i);
+            Long id = idsOriginales[i];
+            List<String> errores = validar(review);
+            if (id != null && !valoracionesActuales.containsKey(id)) {
+                errores.add("Review no encontrada con ID: " + id);
+            } else if (id != null && vistos.contains(id)) {
+                errores.add("ID repetido en el lote: " + id);
+            }
+
+            // Un cliente solo puede tener una review (cliente_id es único)
+            Long clienteId = null;
+            if (review != null && review.getCliente() != null) {
+                clienteId = review.getCliente().getId();
+                if (clienteId == null) {
+                    errores.add("cliente.id: es obligatorio si se indica el cliente");
+                } else if (!reviewDeCliente.containsKey(clienteId)) {
+                    errores.add("Cliente no encontrado con ID: " + clienteId);
+                } else {
+                    Long reviewActual = reviewDeCliente.get(clienteId);
+                    if ((reviewActual != null && !reviewActual.equals(id)) || clientesAsignados.contains(clienteId)) {
+                        errores.add("El cliente con ID " + clienteId + " ya tiene una review");
+                    }
+                }
+            }
+
+            if (errores.isEmpty()) {
+                validos.add(i);
+                if (id != null) {
+                    vistos.add(id);
+                }
+                if (clienteId != null) {
+                    clientesAsignados.add(clienteId);
+                }
+            } else {
+                resultados[i] = ResultadoLote.error(i, id, errores);
+            }
+        }
+
+        porBloques(validos, resultados, idsOriginales, propagarErroresBd, bloque -> {
+            List<Review> nuevas = new ArrayList<>();
+            List<Review> modificadas = new ArrayList<>();
+            for (Integer i : bloque) {
+                (idsOriginales[i] == null ? nuevas : modificadas).add(reviews.get(i));
+            }
+            List<Long> idsGenerados = loteJdbcRepository.insertarReviews(nuevas);
+            for (int k = 0; k < nuevas.size(); k++) {
+                nuevas.get(k).setId(idsGenerados.get(k));
+            }
+            loteJdbcRepository.actualizarReviews(modificadas);
+
+            Set<Long> clientesAfectados = new HashSet<>();
+            for (Integer i : bloque) {
+                Review review = reviews.get(i);
+                boolean nueva = idsOriginales[i] == null;
+                Integer valoracionAnterior = nueva ? null : valoracionesActuales.get(review.getId());
+                if (!nueva && clientesActuales.get(review.getId()) != null) {
+                    clientesAfectados.add(clientesActuales.get(review.getId()));
+                }
+                if (review.getCliente() != null) {
+                    clientesAfectados.add(review.getCliente().getId());
+                }
+                estadisticasCache.actualizarReview(valoracionAnterior, review.getValoracion());
+                indiceBusquedaReviews.indexar(review.getId(), review.getDescripcion());
+                resultados[i] = ResultadoLote.guardado(i, review.getId(), nueva);
+            }
+            desalojarTrasCommit(Review.class, modificadas.stream().map(Review::getId).toList());
+            desalojarTrasCommit(Cliente.class, clientesAfectados);
+            tokenCambios.registrarCambio(TokenCambios.Tabla.REVIEWS);
+        });
+        return RespuestaLote.de(List.of(resultados));
+    }
+
+    // Escribe los elementos válidos por bloques, cada uno en su transacción
+    private void porBloques(List<Integer> indices, ResultadoLote[] resultados, Long[] idsOriginales,
+                            boolean propagarErroresBd, Consumer<List<Integer>> escribir) {
+        TransactionTemplate plantilla = new TransactionTemplate(transactionManager);
+        for (int desde = 0; desde < indices.size(); desde += TAMANO_BLOQUE) {
+            List<Integer> bloque = indices.subList(desde, Math.min(desde + TAMANO_BLOQUE, indices.size()));
+            try {
+                plantilla.executeWithoutResult(estado -> escribir.accept(bloque));
+            } catch (DataAccessException | TransactionException e) {
+                if (propagarErroresBd) {
+                    throw e;
+                }
+                List<String> errores = List.of("No se pudo guardar el bloque: " + e.getMostSpecificCause().getMessage());
+                for (Integer i : bloque) {
+                    resultados[i] = ResultadoLote.error(i, idsOriginales[i], errores);
+                }
+            }
+        }
+    }
+
+    // Las escrituras JDBC no pasan por Hibernate: la caché de segundo nivel se invalida a mano
+    private void desalojarTrasCommit(Class<?> entidad, Collection<Long> ids) {
+        TrasCommit.ejecutar(() -> {
+            ids.forEach(id -> entityManagerFactory.getCache().evict(entidad, id));
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        });
+    }
+
+    private List<String> validar(Object elemento) {
+        List<String> errores = new ArrayList<>();
+        if (elemento == null) {
+            errores.add("Elemento vacío");
+            return errores;
+        }
+        for (ConstraintViolation<Object> violacion : validator.validate(elemento)) {
+            errores.add(violacion.getPropertyPath() + ": " + violacion.getMessage());
+        }
+        errores.sort(null);
+        return errores;
+    }
+
+    private static <T> Long[] idsOriginales(List<T> elementos, Function<T, Long> id) {
+        Long[] ids = new Long[elementos.size()];
+        for (int i = 0; i < elementos.size(); i++) {
+            ids[i] = elementos.get(i) != null ? id.apply(elementos.get(i)) : null;
+        }
+        return ids;
+    }
+
+    private static Set<Long> idsNoNulos(Long[] ids) {
+        Set<Long> resultado = new HashSet<>();
+        for (Long id : ids) {
+            if (id != null) {
+                resultado.add(id);
+            }
+        }
+        return resultado;
+    }
+}
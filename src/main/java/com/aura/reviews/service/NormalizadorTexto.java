@@ -0,0 +1,46 @@
+package com.aura.reviews.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Normalización de texto en español para los índices de búsqueda:
+// minúsculas y sin tildes/diéresis (búsqueda insensible a acentos)
+public final class NormalizadorTexto {
+
+    private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    // Palabras vacías frecuentes (ya normalizadas). "no" y "sin" se conservan:
+    // en una review cambian el sentido ("sin gluten", "no volveremos")
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "de", "la", "que", "el", "en", "y", "a", "los", "del", "se", "las", "por", "un",
+            "para", "con", "una", "su", "al", "lo", "como", "mas", "pero", "sus", "le", "ya",
+            "o", "u", "e", "este", "esta", "estos", "estas", "ese", "esa", "eso", "esto", "es",
+            "son", "fue", "era", "me", "mi", "nos", "les", "muy", "ha", "han", "hay", "todo");
+
+    private NormalizadorTexto() {
+    }
+
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        return DIACRITICOS.matcher(descompuesto).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    // Términos indexables: normalizados, sin palabras vacías ni letras sueltas
+    public static List<String> tokenizar(String texto) {
+        List<String> terminos = new ArrayList<>();
+        for (String termino : SEPARADORES.split(normalizar(texto))) {
+            if (termino.length() > 1 && !PALABRAS_VACIAS.contains(termino)) {
+                terminos.add(termino);
+            }
+        }
+        return terminos;
+    }
+}
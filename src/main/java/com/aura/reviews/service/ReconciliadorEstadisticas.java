@@ -0,0 +1,82 @@
+package com.aura.reviews.service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Carga inicial de EstadisticasCache y corrección periódica de deriva contra la BD
+@Component
+public class ReconciliadorEstadisticas {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconciliadorEstadisticas.class);
+
+    @Autowired
+    private EstadisticasCache estadisticasCache;
+
+    @Autowired
+    private InformeService informeService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    // Deriva detectada en la pasada anterior, pendiente de confirmar
+    private Map<String, Long> derivaPendiente = Map.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        estadisticasCache.ajustar(calcularDeriva());
+        derivaPendiente = Map.of();
+        log.info("Estadísticas del panel cargadas en memoria");
+    }
+
+    // Una escritura concurrente puede aparecer como deriva transitoria,
+    // por eso solo se corrige si se repite igual en dos pasadas seguidas
+    @Scheduled(fixedDelayString = "${aura.estadisticas.reconciliacion-ms:300000}",
+               initialDelayString = "${aura.estadisticas.reconciliacion-ms:300000}")
+    public void reconciliar() {
+        Map<String, Long> deriva = calcularDeriva();
+        if (deriva.isEmpty()) {
+            derivaPendiente = Map.of();
+            return;
+        }
+        if (deriva.equals(derivaPendiente)) {
+            log.warn("Corrigiendo deriva en estadísticas del panel: {}", deriva);
+            estadisticasCache.ajustar(deriva);
+            derivaPendiente = Map.of();
+        } else {
+            derivaPendiente = deriva;
+        }
+    }
+
+    // Diferencia BD - caché por contador (solo claves distintas de cero). Se compara con la
+    // primaria: el retraso de una réplica parecería deriva
+    private Map<String, Long> calcularDeriva() {
+        Map<String, Long> bd;
+        try (LecturasEnPrimaria.Ambito primaria = LecturasEnPrimaria.abrir()) {
+            bd = EstadisticasCache.aplanar(
+                    informeService.calcularEstadisticasClientes(), reviewService.contarPorValoracionEnBd());
+        }
+        Map<String, Long> cache = estadisticasCache.instantanea();
+
+        Set<String> claves = new HashSet<>(bd.keySet());
+        claves.addAll(cache.keySet());
+
+        Map<String, Long> deriva = new HashMap<>();
+        for (String clave : claves) {
+            long diferencia = bd.getOrDefault(clave, 0L) - cache.getOrDefault(clave, 0L);
+            if (diferencia != 0) {
+                deriva.put(clave, diferencia);
+            }
+        }
+        return deriva;
+    }
+}
@@ -0,0 +1,34 @@
+package com.aura.reviews.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.aura.reviews.repository.ClienteRepository;
+
+// Rellena edad_franja en los clientes creados antes de existir la columna.
+// Como ApplicationRunner se ejecuta antes de ApplicationReadyEvent, es decir, antes de
+// cargar las estadísticas del panel, que agrupan por esta columna
+@Component
+public class RellenoFranjaEdad implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RellenoFranjaEdad.class);
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rellenar();
+    }
+
+    public void rellenar() {
+        int actualizados = clienteRepository.rellenarFranjaEdad();
+        if (actualizados > 0) {
+            log.info("Franja de edad calculada para {} clientes existentes", actualizados);
+        }
+    }
+}
@@ -1,24 +1,51 @@
 package com.aura.reviews.service;
 
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.aura.reviews.dto.DatosPreviosReview;
+import com.aura.reviews.dto.FiltroSegmento;
+import com.aura.reviews.dto.PaginaCursor;
+import com.aura.reviews.dto.ReviewResumen;
 import com.aura.reviews.entity.Review;
+import com.aura.reviews.repository.FiltrosSegmento;
 import com.aura.reviews.repository.ReviewRepository;
 
-// Servicio CRUD para Review
+import io.micrometer.core.annotation.Timed;
+
+// Servicio CRUD para Review. Lecturas en transacciones de solo lectura (sin copia para el
+// dirty checking ni flush); las escrituras declaran su propia transacción
 @Service
+@Timed(value = "aura.servicio", histogram = true)
+@Transactional(readOnly = true)
 public class ReviewService {
 
     @Autowired
     private ReviewRepository reviewRepository;
 
+    @Autowired
+    private EstadisticasCache estadisticasCache;
+
+    @Autowired
+    private IndiceBusquedaReviews indiceBusqueda;
+
+    @Autowired
+    private TokenCambios tokenCambios;
+
     public List<Review> listarTodos() {
         return reviewRepository.findAll();
     }
@@ -26,31 +53,168 @@ public class ReviewService {
     public Page<Review> listarPaginado(Pageable pageable) {
         return reviewRepository.findAll(pageable);
     }
+
+    // Página sin recuento total (API REST)
+    public Slice<Review> listarSlice(Pageable pageable) {
+        return reviewRepository.buscarSlice(pageable);
+    }
     
+    // Con el índice cargado: resultados por relevancia y total sin COUNT(*).
+    // Si aún no está listo (o la consulta son solo palabras vacías), LIKE en BD.
     public Page<Review> buscar(String busqueda, Pageable pageable) {
+        return buscar(busqueda, pageable, entidades);
+    }
+
+    // Igual que buscar() pero con resúmenes (listado web): sin entidades ni cliente completo
+    public Page<ReviewResumen> buscarResumenes(String busqueda, Pageable pageable) {
+        return buscar(busqueda, pageable, resumenes);
+    }
+
+    public Slice<ReviewResumen> listarResumenesSlice(Pageable pageable) {
+        return reviewRepository.buscarResumenesSlice(pageable);
+    }
+
+    private <T> Page<T> buscar(String busqueda, Pageable pageable, Consultas<T> consultas) {
         if (busqueda == null || busqueda.trim().isEmpty()) {
-            return reviewRepository.findAll(pageable);
+            return consultas.pagina(pageable);
+        }
+        String termino = busqueda.trim();
+        List<Long> ids = indiceBusqueda.estaListo() ? indiceBusqueda.buscar(termino) : null;
+        if (ids == null) {
+            return consultas.porTermino(termino, pageable);
+        }
+
+        int desde = (int) Math.min(pageable.getOffset(), ids.size());
+        int hasta = Math.min(desde + pageable.getPageSize(), ids.size());
+        return new PageImpl<>(cargarEnOrden(ids.subList(desde, hasta), consultas), pageable, ids.size());
+    }
+
+    // Paginación por cursor (id descendente): después de 'despuesDe' o antes de 'antesDe'
+    public PaginaCursor<Review> listarPorCursor(String busqueda, Long despuesDe, Long antesDe, int tamano) {
+        return listarPorCursor(busqueda, despuesDe, antesDe, tamano, entidades);
+    }
+
+    public PaginaCursor<ReviewResumen> listarResumenesPorCursor(String busqueda, Long despuesDe, Long antesDe, int tamano) {
+        return listarPorCursor(busqueda, despuesDe, antesDe, tamano, resumenes);
+    }
+
+    private <T> PaginaCursor<T> listarPorCursor(String busqueda, Long despuesDe, Long antesDe, int tamano,
+                                                Consultas<T> consultas) {
+        boolean conBusqueda = busqueda != null && !busqueda.trim().isEmpty();
+        String termino = conBusqueda ? busqueda.trim() : null;
+        Limit limite = Limit.of(tamano + 1);
+        boolean haciaAtras = antesDe != null;
+
+        List<Long> coincidencias = conBusqueda && indiceBusqueda.estaListo()
+                ? indiceBusqueda.buscar(termino)
+                : null;
+
+        List<T> filas;
+        if (coincidencias != null) {
+            filas = cargarEnOrden(idsPorCursor(coincidencias, despuesDe, antesDe, tamano + 1), consultas);
+        } else if (haciaAtras) {
+            filas = consultas.posterioresA(termino, antesDe, limite);
+        } else {
+            filas = consultas.anterioresA(termino, despuesDe != null ? despuesDe : Long.MAX_VALUE, limite);
         }
-        return reviewRepository.buscarPorTermino(busqueda.trim(), pageable);
+
+        // Sin búsqueda, el total sale de la caché de estadísticas en vez de un COUNT(*)
+        Long totalEstimado = !conBusqueda && estadisticasCache.estaInicializada()
+                ? estadisticasCache.totalReviews()
+                : null;
+        return PaginaCursor.desde(filas, tamano, haciaAtras, despuesDe != null, consultas::id, totalEstimado);
     }
 
+    // Ids del índice en orden de cursor (id descendente, o ascendente hacia atrás)
+    private static List<Long> idsPorCursor(List<Long> ids, Long despuesDe, Long antesDe, int limite) {
+        if (antesDe != null) {
+            return ids.stream().filter(id -> id > antesDe).sorted().limit(limite).toList();
+        }
+        Long cursor = despuesDe != null ? despuesDe : Long.MAX_VALUE;
+        return ids.stream().filter(id -> id < cursor)
+                .sorted(Comparator.reverseOrder()).limit(limite).toList();
+    }
+
+    // Carga las filas en una sola consulta y respeta el orden de 'ids'.
+    // Los ids que ya no existen (borrados fuera del servicio) se quitan del índice.
+    private <T> List<T> cargarEnOrden(List<Long> ids, Consultas<T> consultas) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, T> porId = consultas.porIds(ids).stream()
+                .collect(Collectors.toMap(consultas::id, Function.identity()));
+        List<Long> ausentes = ids.stream().filter(id -> !porId.containsKey(id)).toList();
+        if (!ausentes.isEmpty()) {
+            indiceBusqueda.descartarAusentes(ausentes);
+        }
+        return ids.stream().map(porId::get).filter(r -> r != null).toList();
+    }
+
+    // Listado por segmento demográfico resuelto con los índices de clientes (sin COUNT)
+    public Slice<Review> listarSegmento(FiltroSegmento filtro, Pageable pageable) {
+        return reviewRepository.findBy(FiltrosSegmento.reviews(filtro),
+                consulta -> consulta.project("cliente").slice(pageable));
+    }
+
+    public long contarSegmento(FiltroSegmento filtro) {
+        return reviewRepository.count(FiltrosSegmento.reviews(filtro));
+    }
+
+    // Sin readOnly, como en ClienteService: la entidad puede guardarse en la misma petición
+    @Transactional
     public Review buscarPorId(Long id) {
         return reviewRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Review no encontrada con ID: " + id));
+                .orElseThrow(() -> noEncontrada(id));
     }
 
+    @Transactional
     public Review guardar(Review review) {
-        return reviewRepository.save(review);
+        // Valoración previa (estadísticas) y versión en una consulta
+        DatosPreviosReview anterior = review.getId() != null
+                ? reviewRepository.buscarDatosPrevios(review.getId()).orElse(null)
+                : null;
+        Integer valoracionAnterior = anterior != null ? anterior.valoracion() : null;
+        // Sin versión (formularios, PUT sin If-Match) se sobrescribe la actual
+        if (anterior != null && review.getVersion() == null) {
+            review.setVersion(anterior.version());
+        }
+        Review guardada = reviewRepository.save(review);
+        estadisticasCache.actualizarReview(valoracionAnterior, guardada.getValoracion());
+        indiceBusqueda.indexar(guardada.getId(), guardada.getDescripcion());
+        tokenCambios.registrarCambio(TokenCambios.Tabla.REVIEWS);
+        return guardada;
     }
 
+    // La review sale normalmente de la caché de segundo nivel y remove() solo desaloja su
+    // entrada (un DELETE JPQL vaciaría la región entera). El DELETE lleva la versión: si otra
+    // petición la borra antes, falla al confirmar y las estadísticas (tras el commit) no cambian
+    @Transactional
     public void borrar(Long id) {
         Review review = buscarPorId(id);
+        // El cliente (cargado con la review) la volvería a persistir por cascade al hacer flush
+        if (review.getCliente() != null) {
+            review.getCliente().setReview(null);
+        }
         reviewRepository.delete(review);
+        estadisticasCache.actualizarReview(review.getValoracion(), null);
+        indiceBusqueda.eliminar(id);
+        tokenCambios.registrarCambio(TokenCambios.Tabla.REVIEWS);
     }
     
-    // Retorna un mapa valoración -> cantidad (1-5 estrellas)
+    // Retorna un mapa valoración -> cantidad (1-5 estrellas), desde la caché si ya está cargada
     public Map<Integer, Long> contarPorValoracion() {
-        List<Object[]> resultados = reviewRepository.contarPorValoracion();
+        if (estadisticasCache.estaInicializada()) {
+            return estadisticasCache.reviewsPorValoracion();
+        }
+        return aMapaDeValoraciones(reviewRepository.contarPorValoracion());
+    }
+
+    // Conteo directo en BD (carga inicial y reconciliación de la caché)
+    public Map<Integer, Long> contarPorValoracionEnBd() {
+        return aMapaDeValoraciones(reviewRepository.contarPorValoracionDesdeBd());
+    }
+
+    private static Map<Integer, Long> aMapaDeValoraciones(List<Object[]> resultados) {
         Map<Integer, Long> conteo = new HashMap<>();
         
         // Inicializar 1-5 con valor 0
@@ -67,4 +231,99 @@ public class ReviewService {
         
         return conteo;
     }
+
+    private static IllegalArgumentException noEncontrada(Long id) {
+        return new IllegalArgumentException("Review no encontrada con ID: " + id);
+    }
+
+    // Consultas de los listados, con entidades (API, con su cliente en el mismo JOIN) o con
+    // resúmenes. Término null: sin búsqueda
+    private interface Consultas<T> {
+
+        Page<T> pagina(Pageable pageable);
+
+        Page<T> porTermino(String termino, Pageable pageable);
+
+        List<T> porIds(Collection<Long> ids);
+
+        List<T> anterioresA(String termino, Long cursor, Limit limite);
+
+        List<T> posterioresA(String termino, Long cursor, Limit limite);
+
+        Long id(T fila);
+    }
+
+    private final Consultas<Review> entidades = new Consultas<>() {
+
+        @Override
+        public Page<Review> pagina(Pageable pageable) {
+            return reviewRepository.findAll(pageable);
+        }
+
+        @Override
+        public Page<Review> porTermino(String termino, Pageable pageable) {
+            return reviewRepository.buscarPorTermino(termino, pageable);
+        }
+
+        @Override
+        public List<Review> porIds(Collection<Long> ids) {
+            return reviewRepository.buscarPorIds(ids);
+        }
+
+        @Override
+        public List<Review> anterioresA(String termino, Long cursor, Limit limite) {
+            return termino != null
+                    ? reviewRepository.buscarPorTerminoAnterioresA(termino, cursor, limite)
+                    : reviewRepository.buscarAnterioresA(cursor, limite);
+        }
+
+        @Override
+        public List<Review> posterioresA(String termino, Long cursor, Limit limite) {
+            return termino != null
+                    ? reviewRepository.buscarPorTerminoPosterioresA(termino, cursor, limite)
+                    : reviewRepository.buscarPosterioresA(cursor, limite);
+        }
+
+        @Override
+        public Long id(Review fila) {
+            return fila.getId();
+        }
+    };
+
+    private final Consultas<ReviewResumen> resumenes = new Consultas<>() {
+
+        @Override
+        public Page<ReviewResumen> pagina(Pageable pageable) {
+            return reviewRepository.buscarResumenes(pageable);
+        }
+
+        @Override
+        public Page<ReviewResumen> porTermino(String termino, Pageable pageable) {
+            return reviewRepository.buscarResumenesPorTermino(termino, pageable);
+        }
+
+        @Override
+        public List<ReviewResumen> porIds(Collection<Long> ids) {
+            return reviewRepository.buscarResumenesPorIds(ids);
+        }
+
+        @Override
+        public List<ReviewResumen> anterioresA(String termino, Long cursor, Limit limite) {
+            return termino != null
+                    ? reviewRepository.buscarResumenesPorTerminoAnterioresA(termino, cursor, limite)
+                    : reviewRepository.buscarResumenesAnterioresA(cursor, limite);
+        }
+
+        @Override
+        public List<ReviewResumen> posterioresA(String termino, Long cursor, Limit limite) {
+            return termino != null
+                    ? reviewRepository.buscarResumenesPorTerminoPosterioresA(termino, cursor, limite)
+                    : reviewRepository.buscarResumenesPosterioresA(cursor, limite);
+        }
+
+        @Override
+        public Long id(ReviewResumen fila) {
+            return fila.id();
+        }
+    };
 }
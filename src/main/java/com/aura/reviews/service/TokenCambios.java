@@ -0,0 +1,130 @@
+package com.aura.reviews.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import com.aura.reviews.entity.Cliente;
+import com.aura.reviews.entity.Review;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Token de cambios por tabla para los ETag de los listados de la API: si no cambia, la
+// página tampoco y se responde 304 sin consultar la BD. Cada escritura lo cambia al
+// hacerse y otra vez tras el commit, para que una lectura concurrente de datos aún sin
+// confirmar no quede asociada a un token vigente. El prefijo aleatorio lo distingue entre
+// arranques y entre instancias.
+// Con réplicas, lo leído de una réplica durante la ventana de escritura puede ser anterior al
+// cambio: al cerrarse la ventana el token cambia una vez más y se vacían las regiones de la
+// caché de segundo nivel de la tabla, así nada de esa ventana sigue en caché (páginas HTML,
+// ETag, entidades y consultas). Hay como mucho un cierre pendiente por tabla: las escrituras
+// que llegan con uno ya programado lo retrasan hasta el fin de su propia ventana (como mucho
+// dos ventanas desde que se programó), así una ráfaga de escrituras vacía la caché una vez.
+@Component
+public class TokenCambios {
+
+    public enum Tabla {
+        CLIENTES(Cliente.class), REVIEWS(Review.class);
+
+        private final Class<?> entidad;
+
+        Tabla(Class<?> entidad) {
+            this.entidad = entidad;
+        }
+    }
+
+    private final String arranque = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    private final Map<Tabla, AtomicLong> contadores = new EnumMap<>(Tabla.class);
+
+    private final Map<Tabla, AtomicReference<Instant>> ultimasEscrituras = new EnumMap<>(Tabla.class);
+
+    private final Map<Tabla, AtomicBoolean> cierresPendientes = new EnumMap<>(Tabla.class);
+
+    @Value("${aura.replicas.urls:}")
+    private String replicas;
+
+    @Value("${aura.replicas.ventana-escritura:5s}")
+    private Duration ventanaEscritura;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    // Lazy: los filtros web (CachePaginasHtml) piden este bean antes de que exista JPA
+    @Lazy
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public TokenCambios() {
+        for (Tabla tabla : Tabla.values()) {
+            contadores.put(tabla, new AtomicLong());
+            ultimasEscrituras.put(tabla, new AtomicReference<>(Instant.MIN));
+            cierresPendientes.put(tabla, new AtomicBoolean());
+        }
+    }
+
+    public void registrarCambio(Tabla... tablas) {
+        incrementar(tablas);
+        TrasCommit.ejecutar(() -> {
+            incrementar(tablas);
+            if (!replicas.isBlank()) {
+                for (Tabla tabla : tablas) {
+                    ultimasEscrituras.get(tabla).set(Instant.now());
+                    programarCierre(tabla, Instant.now().plus(ventanaEscritura));
+                }
+            }
+        });
+    }
+
+    public String token(Tabla... tablas) {
+        StringBuilder token = new StringBuilder(arranque);
+        for (Tabla tabla : tablas) {
+            token.append('-').append(contadores.get(tabla).get());
+        }
+        return token.toString();
+    }
+
+    private void programarCierre(Tabla tabla, Instant cuando) {
+        if (cierresPendientes.get(tabla).compareAndSet(false, true)) {
+            Instant limite = Instant.now().plus(ventanaEscritura.multipliedBy(2));
+            taskScheduler.schedule(() -> cerrarVentana(tabla, limite), cuando);
+        }
+    }
+
+    // Si hubo escrituras después de programarlo, el cierre se retrasa hasta el fin de la última
+    // (sin pasar del límite). Se libera antes de vaciar: una escritura a partir de aquí programa
+    // el suyo, y las anteriores que cayeron en la ventana se cubren con la comprobación del final
+    private void cerrarVentana(Tabla tabla, Instant limite) {
+        Instant finEscrituras = ultimasEscrituras.get(tabla).get().plus(ventanaEscritura);
+        if (finEscrituras.isAfter(Instant.now()) && finEscrituras.isBefore(limite)) {
+            taskScheduler.schedule(() -> cerrarVentana(tabla, limite), finEscrituras);
+            return;
+        }
+        cierresPendientes.get(tabla).set(false);
+        entityManagerFactory.getCache().evict(tabla.entidad);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        incrementar(tabla);
+        Instant fin = ultimasEscrituras.get(tabla).get().plus(ventanaEscritura);
+        if (fin.isAfter(Instant.now())) {
+            programarCierre(tabla, fin);
+        }
+    }
+
+    private void incrementar(Tabla... tablas) {
+        for (Tabla tabla : tablas) {
+            contadores.get(tabla).incrementAndGet();
+        }
+    }
+}
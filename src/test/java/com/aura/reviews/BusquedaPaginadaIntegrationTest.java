@@ -0,0 +1,97 @@
+package com.aura.reviews;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.util.HtmlUtils;
+
+import com.aura.reviews.dto.ReviewResumen;
+import com.aura.reviews.entity.Review;
+import com.aura.reviews.repository.ClienteRepository;
+import com.aura.reviews.repository.ReviewRepository;
+import com.aura.reviews.service.IndiceBusquedaReviews;
+
+// Tests de integración de la paginación de búsquedas en /reviews: se sigue el enlace "Siguiente"
+// tal como lo pinta la plantilla y las dos páginas juntas deben dar los resultados del índice en
+// su orden de relevancia, sin huecos ni repetidos
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BusquedaPaginadaIntegrationTest {
+
+    private static final int RESULTADOS = 8;
+    private static final Pattern ENLACE_SIGUIENTE = Pattern.compile("href=\"([^\"]*)\" aria-label=\"Siguiente\"");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private IndiceBusquedaReviews indiceBusquedaReviews;
+
+    @BeforeEach
+    void limpiarBaseDatos() {
+        reviewRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+
+    // Más apariciones del término en las reviews más antiguas: por relevancia salen en orden
+    // de id ascendente, al revés que el cursor por id
+    @Test
+    @DisplayName("TC-I35: la segunda página de una búsqueda de reviews sigue el orden de relevancia")
+    void buscarReviews_dosPaginas_sinHuecosNiRepetidos() throws Exception {
+        // Arrange
+        for (int i = 1; i <= RESULTADOS; i++) {
+            reviewRepository.save(new Review("paella ".repeat(RESULTADOS + 1 - i) + "con marisco", 4, null));
+        }
+        indiceBusquedaReviews.cargar();
+        List<Long> esperados = indiceBusquedaReviews.buscar("paella");
+        assertNotEquals(esperados.stream().sorted(Comparator.reverseOrder()).toList(), esperados);
+
+        // Act
+        List<Long> recorridos = recorrerDosPaginas("/reviews?busqueda=paella");
+
+        // Assert
+        assertEquals(esperados, recorridos);
+    }
+
+    // Ids de la primera página y de la que enlaza su "Siguiente"
+    private List<Long> recorrerDosPaginas(String url) throws Exception {
+        MvcResult primera = mockMvc.perform(get(url)).andExpect(status().isOk()).andReturn();
+        Matcher enlace = ENLACE_SIGUIENTE.matcher(primera.getResponse().getContentAsString());
+        assertTrue(enlace.find(), "La primera página no tiene enlace Siguiente");
+        MvcResult segunda = mockMvc.perform(get(HtmlUtils.htmlUnescape(enlace.group(1))))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        List<Long> ids = new ArrayList<>();
+        for (MvcResult pagina : List.of(primera, segunda)) {
+            ((List<?>) pagina.getModelAndView().getModel().get("reviews"))
+                    .forEach(fila -> ids.add(((ReviewResumen) fila).id()));
+        }
+        return ids;
+    }
+}
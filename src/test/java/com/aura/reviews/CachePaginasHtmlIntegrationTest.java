@@ -0,0 +1,92 @@
+package com.aura.reviews;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.aura.reviews.entity.Cliente;
+import com.aura.reviews.repository.ClienteRepository;
+import com.aura.reviews.repository.ReviewRepository;
+import com.aura.reviews.service.ClienteService;
+import com.aura.reviews.service.TokenCambios;
+
+// Tests de integración de la caché de páginas HTML. BD H2 propia (el contexto tiene otra
+// configuración). Las escrituras directas con el repositorio no cambian el token: sirven
+// para comprobar que la respuesta sale de la caché
+@SpringBootTest(properties = {
+        "aura.cache-html.activa=true",
+        "spring.datasource.url=jdbc:h2:mem:cachehtml;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CachePaginasHtmlIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private TokenCambios tokenCambios;
+
+    @BeforeEach
+    void limpiarBaseDatos() {
+        reviewRepository.deleteAll();
+        clienteRepository.deleteAll();
+        tokenCambios.registrarCambio(TokenCambios.Tabla.CLIENTES, TokenCambios.Tabla.REVIEWS);
+    }
+
+    // La página cacheada se sirve hasta que un cambio por el servicio mueve el token
+    @Test
+    @DisplayName("TC-I23: GET /clientes se sirve desde caché y se renderiza de nuevo al cambiar los datos")
+    void listarClientes_cacheada_seInvalidaAlGuardar() throws Exception {
+        // Arrange
+        clienteService.guardar(new Cliente("Marta Gil", 34, "Femenino", false, null));
+        mockMvc.perform(get("/clientes")).andExpect(content().string(containsString("Marta Gil")));
+
+        // Act - alta sin pasar por el servicio: la caché no se entera
+        clienteRepository.save(new Cliente("Pablo Ruiz", 52, "Masculino", false, null));
+
+        // Assert
+        mockMvc.perform(get("/clientes"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(containsString("Pablo Ruiz"))));
+
+        clienteService.guardar(new Cliente("Nerea Sanz", 27, "Femenino", true, "Gluten"));
+        mockMvc.perform(get("/clientes"))
+                .andExpect(content().string(containsString("Pablo Ruiz")))
+                .andExpect(content().string(containsString("Nerea Sanz")));
+    }
+
+    // El mensaje flash es de quien guardó: ni se guarda en caché ni se pierde por ella
+    @Test
+    @DisplayName("TC-I24: las páginas con mensaje flash no se cachean")
+    void listarClientes_conMensajeFlash_noSeCachea() throws Exception {
+        // Arrange
+        mockMvc.perform(get("/reviews")).andExpect(status().isOk());
+
+        // Act & Assert
+        mockMvc.perform(get("/reviews").flashAttr("mensaje", "Review guardada correctamente"))
+                .andExpect(content().string(containsString("Review guardada correctamente")));
+        mockMvc.perform(get("/reviews"))
+                .andExpect(content().string(not(containsString("Review guardada correctamente"))));
+    }
+}
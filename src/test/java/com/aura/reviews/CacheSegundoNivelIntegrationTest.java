@@ -0,0 +1,131 @@
+package com.aura.reviews;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.aura.reviews.entity.Cliente;
+import com.aura.reviews.entity.Review;
+import com.aura.reviews.repository.ClienteRepository;
+import com.aura.reviews.repository.ReviewRepository;
+import com.aura.reviews.service.ClienteService;
+import com.aura.reviews.service.ReviewService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+// Tests de integración de la caché de segundo nivel (sin transacción compartida:
+// cada llamada al servicio usa su propia sesión, como en una petición real)
+@SpringBootTest
+@ActiveProfiles("test")
+class CacheSegundoNivelIntegrationTest {
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void limpiarBaseDatos() {
+        reviewRepository.deleteAll();
+        clienteRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // La segunda lectura por id (la de vincularCliente incluida) toma las entidades de la caché.
+    // Solo queda la consulta por clave única del OneToOne inverso Cliente.review.
+    @Test
+    @DisplayName("TC-I12: buscarPorId() se sirve desde la caché de segundo nivel")
+    void buscarPorId_segundaLecturaDesdeCache() {
+        // Arrange
+        Cliente cliente = clienteService.guardar(new Cliente("Marta Gil", 40, "Femenino", false, null));
+        Review review = reviewService.guardar(new Review("Muy buena atención", 5, cliente));
+        entityManagerFactory.getCache().evictAll();
+        estadisticas.clear();
+        reviewService.buscarPorId(review.getId());
+        clienteService.buscarPorId(cliente.getId());
+        long sentenciasEnFrio = estadisticas.getPrepareStatementCount();
+        long cargasEnFrio = estadisticas.getEntityLoadCount();
+        estadisticas.clear();
+
+        // Act
+        Review leida = reviewService.buscarPorId(review.getId());
+        Cliente leido = clienteService.buscarPorId(cliente.getId());
+
+        // Assert
+        assertEquals("Marta Gil", leida.getCliente().getNombre());
+        assertEquals("Marta Gil", leido.getNombre());
+        assertTrue(estadisticas.getSecondLevelCacheHitCount() >= 2);
+        assertTrue(estadisticas.getEntityLoadCount() < cargasEnFrio);
+        assertTrue(estadisticas.getPrepareStatementCount() <= sentenciasEnFrio);
+        assertNotNull(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tags("region", "reviews", "result", "hit").functionCounter(),
+                "Aciertos por región expuestos en /actuator/metrics");
+    }
+
+    // Al borrar el cliente, la review borrada en cascada sale también de la caché
+    @Test
+    @DisplayName("TC-I13: borrar() un cliente invalida en caché su review en cascada")
+    void borrarCliente_invalidaReviewEnCascada() {
+        // Arrange
+        Cliente cliente = clienteService.guardar(new Cliente("Jorge Pons", 52, "Masculino", true, "Marisco"));
+        Review review = reviewService.guardar(new Review("Raciones escasas", 2, cliente));
+        reviewService.buscarPorId(review.getId());
+        assertTrue(entityManagerFactory.getCache().contains(Review.class, review.getId()));
+
+        // Act
+        clienteService.borrar(cliente.getId());
+
+        // Assert - una lectura posterior no devuelve las entidades borradas desde la caché
+        assertTrue(reviewRepository.findById(review.getId()).isEmpty());
+        assertTrue(clienteRepository.findById(cliente.getId()).isEmpty());
+    }
+
+    // El conteo por estrellas sale de la caché de consultas hasta que cambia la tabla
+    @Test
+    @DisplayName("TC-I14: contarPorValoracion() usa la caché de consultas y se invalida al escribir")
+    void contarPorValoracion_cacheDeConsultasInvalidadaAlEscribir() {
+        // Arrange
+        Cliente cliente = clienteService.guardar(new Cliente("Lola Vega", 30, "Femenino", false, null));
+        reviewRepository.contarPorValoracion();
+        estadisticas.clear();
+
+        // Act
+        reviewRepository.contarPorValoracion();
+        long aciertos = estadisticas.getQueryCacheHitCount();
+        reviewService.guardar(new Review("Volveremos", 4, cliente));
+        long cuatroEstrellas = reviewRepository.contarPorValoracion().stream()
+                .filter(fila -> (Integer) fila[0] == 4)
+                .mapToLong(fila -> (Long) fila[1])
+                .sum();
+
+        // Assert
+        assertEquals(1, aciertos);
+        assertEquals(1L, cuatroEstrellas);
+    }
+}
@@ -0,0 +1,119 @@
+package com.aura.reviews;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.tomcat.TomcatWebServer;
+import org.springframework.boot.web.server.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.aura.reviews.entity.Cliente;
+import com.aura.reviews.entity.Review;
+import com.aura.reviews.repository.ClienteRepository;
+import com.aura.reviews.repository.ReviewRepository;
+
+// Prueba de carga de GET /api/reviews/{id} con y sin hilos virtuales (mvn test -Pcarga).
+// Arranca la aplicación en cada modo con H2 y muestra el rendimiento; contra MySQL la
+// diferencia es mayor porque cada petición espera a la red
+@Tag("carga")
+class CargaHilosVirtualesTest {
+
+    private static final int REVIEWS = 1000;
+    private static final int USUARIOS_CONCURRENTES = 400;
+    private static final Duration CALENTAMIENTO = Duration.ofSeconds(5);
+    private static final Duration DURACION = Duration.ofSeconds(15);
+
+    @ParameterizedTest(name = "hilos virtuales = {0}")
+    @ValueSource(booleans = {false, true})
+    @DisplayName("TC-C01: GET /api/reviews/{id} bajo carga concurrente con y sin hilos virtuales")
+    void obtenerReviewPorId_bajoCarga(boolean hilosVirtuales) throws Exception {
+        // Con el perfil virtuales, como en despliegue (hilos virtuales y su timeout del pool)
+        String[] perfiles = hilosVirtuales ? new String[] {"test", "virtuales"} : new String[] {"test"};
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(AuraReviewsApplication.class)
+                .profiles(perfiles)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:carga;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false")) {
+            // Arrange - el conector de Tomcat usa el ejecutor del modo elegido
+            TomcatWebServer servidor = (TomcatWebServer) ((ServletWebServerApplicationContext) contexto).getWebServer();
+            boolean ejecutorVirtual = servidor.getTomcat().getConnector().getProtocolHandler().getExecutor()
+                    instanceof VirtualThreadExecutor;
+            assertEquals(hilosVirtuales, ejecutorVirtual);
+
+            List<Long> ids = crearReviews(contexto);
+            String base = "http://localhost:" + servidor.getPort() + "/api/reviews/";
+
+            // Act
+            lanzarCarga(base, ids, CALENTAMIENTO);
+            Resultado resultado = lanzarCarga(base, ids, DURACION);
+
+            // Assert
+            System.out.printf("[carga] hilos virtuales=%s: %d peticiones, %.0f req/s, %d errores%n",
+                    hilosVirtuales, resultado.correctas(),
+                    resultado.correctas() / (double) DURACION.toSeconds(), resultado.errores());
+            // Con hilos de plataforma las conexiones que superan el pool de Tomcat esperan en
+            // la cola de aceptación y alguna puede caducar: se tolera hasta un 1 % de errores
+            assertTrue(resultado.correctas() > 0);
+            assertTrue(resultado.errores() * 100 <= resultado.correctas(),
+                    "Demasiados errores: " + resultado.errores());
+        }
+    }
+
+    private static List<Long> crearReviews(ConfigurableApplicationContext contexto) {
+        ClienteRepository clienteRepository = contexto.getBean(ClienteRepository.class);
+        ReviewRepository reviewRepository = contexto.getBean(ReviewRepository.class);
+        List<Long> ids = new ArrayList<>(REVIEWS);
+        for (int i = 0; i < REVIEWS; i++) {
+            Cliente cliente = clienteRepository.save(new Cliente("Cliente " + i, 20 + i % 50, "Femenino", false, null));
+            ids.add(reviewRepository.save(new Review("Opinión número " + i, 1 + i % 5, cliente)).getId());
+        }
+        return ids;
+    }
+
+    // Cada usuario repite peticiones sobre ids aleatorios hasta agotar el tiempo
+    private static Resultado lanzarCarga(String base, List<Long> ids, Duration duracion) throws InterruptedException {
+        AtomicLong correctas = new AtomicLong();
+        AtomicLong errores = new AtomicLong();
+        long fin = System.nanoTime() + duracion.toNanos();
+        // El cliente se cierra después de esperar a todos los usuarios
+        try (HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+             ExecutorService usuarios = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < USUARIOS_CONCURRENTES; i++) {
+                usuarios.execute(() -> {
+                    while (System.nanoTime() < fin) {
+                        Long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+                        HttpRequest peticion = HttpRequest.newBuilder(URI.create(base + id)).build();
+                        try {
+                            HttpResponse<Void> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.discarding());
+                            (respuesta.statusCode() == 200 ? correctas : errores).incrementAndGet();
+                        } catch (Exception e) {
+                            errores.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        }
+        return new Resultado(correctas.get(), errores.get());
+    }
+
+    private record Resultado(long correctas, long errores) {
+    }
+}
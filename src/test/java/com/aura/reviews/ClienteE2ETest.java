@@ -14,6 +14,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.resttestclient.TestRestTemplate;
 import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureTestRestTemplate;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -137,4 +138,69 @@ class ClienteE2ETest {
         assertTrue(nombres.contains("Carmen Vega"));
         assertTrue(nombres.contains("Pablo Serrano"));
     }
+
+    // Página acotada con cabecera Link y exportación NDJSON en streaming
+    @Test
+    @DisplayName("TC-E05: GET /api/clientes pagina con Link rel=next y exporta en NDJSON")
+    void paginacionYExportacionNdjson() {
+        // Crear 3 clientes
+        for (String nombre : List.of("Olga Prieto", "Hugo Lara", "Nuria Cano")) {
+            restTemplate.postForEntity("/api/clientes",
+                    new Cliente(nombre, 31, "Femenino", false, null), Cliente.class);
+        }
+
+        // Página de 2 -> cabecera Link hacia la siguiente
+        ResponseEntity<Cliente[]> primeraPagina = restTemplate.getForEntity(
+                "/api/clientes?page=0&size=2", Cliente[].class);
+
+        assertEquals(HttpStatus.OK, primeraPagina.getStatusCode());
+        assertEquals(2, primeraPagina.getBody().length);
+        assertEquals("Olga Prieto", primeraPagina.getBody()[0].getNombre());
+        String enlace = primeraPagina.getHeaders().getFirst(HttpHeaders.LINK);
+        assertNotNull(enlace);
+        assertTrue(enlace.contains("page=1") && enlace.contains("rel=\"next\""));
+
+        // Última página -> sin cabecera Link
+        ResponseEntity<Cliente[]> ultimaPagina = restTemplate.getForEntity(
+                "/api/clientes?page=1&size=2", Cliente[].class);
+
+        assertEquals(1, ultimaPagina.getBody().length);
+        assertEquals(null, ultimaPagina.getHeaders().getFirst(HttpHeaders.LINK));
+
+        // Exportación NDJSON: un cliente por línea
+        ResponseEntity<String> exportacion = restTemplate.getForEntity(
+                "/api/clientes?formato=ndjson", String.class);
+
+        assertEquals(HttpStatus.OK, exportacion.getStatusCode());
+        assertTrue(exportacion.getHeaders().getContentType().toString().startsWith("application/x-ndjson"));
+        String[] lineas = exportacion.getBody().strip().split("\n");
+        assertEquals(3, lineas.length);
+        assertTrue(lineas[0].contains("\"nombre\":\"Olga Prieto\""));
+    }
+
+    // Métricas de servicios, peticiones HTTP, pool, Hibernate y JVM en formato Prometheus
+    @Test
+    @DisplayName("TC-E07: /actuator/prometheus expone timers de servicio y tramos de búsqueda y página")
+    void prometheus_exponeMetricasConEtiquetasDeBajaCardinalidad() {
+        clienteRepository.save(new Cliente("Marina Soler", 29, "Femenino", false, null));
+
+        // Búsqueda de 3 caracteres en la página 12
+        ResponseEntity<String> busqueda = restTemplate.getForEntity(
+                "/api/clientes?busqueda=mar&page=12", String.class);
+        assertEquals(HttpStatus.OK, busqueda.getStatusCode());
+
+        ResponseEntity<String> respuesta = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        assertEquals(HttpStatus.OK, respuesta.getStatusCode());
+        String metricas = respuesta.getBody();
+        assertTrue(metricas.lines().anyMatch(linea -> linea.startsWith("http_server_requests_seconds_bucket{")
+                && linea.contains("busqueda=\"1-3\"") && linea.contains("pagina=\"10-99\"")
+                && linea.contains("uri=\"/api/clientes\"")));
+        assertTrue(metricas.lines().anyMatch(linea -> linea.startsWith("aura_servicio_seconds_bucket{")
+                && linea.contains("class=\"com.aura.reviews.service.ClienteService\"")));
+        assertTrue(metricas.contains("hikaricp_connections_active"));
+        assertTrue(metricas.contains("hibernate_statements_total"));
+        assertTrue(metricas.contains("hibernate_second_level_cache_requests_total"));
+        assertTrue(metricas.contains("jvm_gc_memory_allocated_bytes_total"));
+    }
 }
@@ -2,10 +2,13 @@ package com.aura.reviews;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -15,14 +18,18 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.aura.reviews.entity.Cliente;
+import com.aura.reviews.entity.Review;
 import com.aura.reviews.repository.ClienteRepository;
 import com.aura.reviews.repository.ReviewRepository;
+
+import jakarta.persistence.EntityManager;
 import tools.jackson.databind.ObjectMapper;
 
 // Tests de integración para /api/clientes con MockMvc y H2
@@ -44,6 +51,9 @@ class ClienteRestControllerIntegrationTest {
     @Autowired
     private ReviewRepository reviewRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @BeforeEach
     void limpiarBaseDatos() {
         reviewRepository.deleteAll();
@@ -127,4 +137,148 @@ class ClienteRestControllerIntegrationTest {
         mockMvc.perform(get("/api/clientes/" + clienteId))
                 .andExpect(status().isNotFound());
     }
+
+    // Paginación por cursor: siguiente y anterior sin OFFSET
+    @Test
+    @DisplayName("TC-I11: GET /api/clientes?paginacion=cursor recorre las páginas con after/before")
+    void listarClientesPorCursor_siguienteYAnterior() throws Exception {
+        // Insertar 3 clientes (ids crecientes)
+        Long id1 = clienteRepository.save(new Cliente("Uno", 20, "Femenino", false, null)).getId();
+        Long id2 = clienteRepository.save(new Cliente("Dos", 30, "Masculino", false, null)).getId();
+        Long id3 = clienteRepository.save(new Cliente("Tres", 40, "Femenino", false, null)).getId();
+
+        // Primera página: los 2 más recientes
+        mockMvc.perform(get("/api/clientes").param("paginacion", "cursor").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido", hasSize(2)))
+                .andExpect(jsonPath("$.contenido[0].id", is(id3.intValue())))
+                .andExpect(jsonPath("$.cursorAnterior", nullValue()))
+                .andExpect(jsonPath("$.cursorSiguiente", is(id2.intValue())));
+
+        // Siguiente página
+        mockMvc.perform(get("/api/clientes").param("after", id2.toString()).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido", hasSize(1)))
+                .andExpect(jsonPath("$.contenido[0].nombre", is("Uno")))
+                .andExpect(jsonPath("$.cursorAnterior", is(id1.intValue())))
+                .andExpect(jsonPath("$.cursorSiguiente", nullValue()));
+
+        // Volver atrás
+        mockMvc.perform(get("/api/clientes").param("before", id1.toString()).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido", hasSize(2)))
+                .andExpect(jsonPath("$.contenido[0].id", is(id3.intValue())))
+                .andExpect(jsonPath("$.contenido[1].id", is(id2.intValue())))
+                .andExpect(jsonPath("$.cursorAnterior", nullValue()));
+    }
+
+    // Lote mixto: alta, modificación y elementos con error, con resultado por elemento
+    @Test
+    @DisplayName("TC-I15: POST /api/clientes/batch crea, actualiza y rechaza por elemento")
+    void guardarLoteClientes_resultadoPorElemento() throws Exception {
+        Long existente = clienteRepository.save(new Cliente("Antonio Ruiz", 50, "Masculino", false, null)).getId();
+
+        String lote = String.format("[" +
+                "{\"nombre\": \"Nuevo Cliente\", \"edad\": 33, \"genero\": \"Femenino\", \"intolerancia\": false}," +
+                "{\"id\": %d, \"nombre\": \"Antonio Ruiz Gil\", \"edad\": 51, \"genero\": \"Masculino\", \"intolerancia\": true}," +
+                "{\"nombre\": \"\", \"edad\": -1, \"genero\": \"Femenino\"}," +
+                "{\"id\": 999999, \"nombre\": \"No existe\", \"edad\": 20, \"genero\": \"Femenino\"}" +
+                "]", existente);
+
+        mockMvc.perform(post("/api/clientes/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(lote))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(4)))
+                .andExpect(jsonPath("$.correctos", is(2)))
+                .andExpect(jsonPath("$.resultados[0].estado", is("CREADO")))
+                .andExpect(jsonPath("$.resultados[1].estado", is("ACTUALIZADO")))
+                .andExpect(jsonPath("$.resultados[1].id", is(existente.intValue())))
+                .andExpect(jsonPath("$.resultados[2].estado", is("ERROR")))
+                .andExpect(jsonPath("$.resultados[2].errores", hasSize(2)))
+                .andExpect(jsonPath("$.resultados[3].errores[0]", is("Cliente no encontrado con ID: 999999")));
+
+        // El lote se escribe por JDBC: se vacía el contexto de persistencia del test para releer
+        entityManager.clear();
+        mockMvc.perform(get("/api/clientes/" + existente))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombre", is("Antonio Ruiz Gil")))
+                .andExpect(jsonPath("$.intolerancia", is(true)));
+    }
+
+    // ETag de la entidad (versión) y del listado (token de cambios): 304 si no cambian,
+    // 412 al escribir con un ETag obsoleto
+    @Test
+    @DisplayName("TC-I22: GET condicional responde 304 y PUT con If-Match obsoleto responde 412")
+    void etag_getCondicionalYPutConIfMatch() throws Exception {
+        Cliente cliente = clienteRepository.save(new Cliente("Nuria Cano", 38, "Femenino", false, null));
+        entityManager.flush();
+        String url = "/api/clientes/" + cliente.getId();
+
+        // Mismo ETag -> 304 sin cuerpo, en la entidad y en el listado
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        String etagListado = mockMvc.perform(get("/api/clientes"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/clientes").header(HttpHeaders.IF_NONE_MATCH, etagListado))
+                .andExpect(status().isNotModified());
+
+        // PUT con el ETag vigente -> 200
+        String json = "{\"nombre\": \"Nuria Cano Gil\", \"edad\": 38, \"genero\": \"Femenino\", \"intolerancia\": false}";
+        mockMvc.perform(put(url).header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk());
+        entityManager.flush();
+
+        // El ETag anterior ya no vale: 412 al escribir y 200 al leer
+        mockMvc.perform(put(url).header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombre", is("Nuria Cano Gil")));
+        mockMvc.perform(get("/api/clientes").header(HttpHeaders.IF_NONE_MATCH, etagListado))
+                .andExpect(status().isOk());
+    }
+
+    // Prefijo del nombre, solo clientes sin review, ordenados por nombre y con límite;
+    // los comodines de LIKE se buscan como texto
+    @Test
+    @DisplayName("TC-I25: GET /api/clientes/sugerencias devuelve clientes sin review por prefijo")
+    void sugerencias_porPrefijo_soloClientesSinReview() throws Exception {
+        // Arrange
+        Cliente conReview = clienteRepository.save(new Cliente("Mario Vidal", 44, "Masculino", false, null));
+        reviewRepository.save(new Review("Muy bueno", 5, conReview));
+        clienteRepository.save(new Cliente("Marta Soler", 31, "Femenino", false, null));
+        clienteRepository.save(new Cliente("Mariano Gil", 67, "Masculino", true, "Frutos secos"));
+        clienteRepository.save(new Cliente("Ana Martín", 22, "Femenino", false, null));
+        clienteRepository.save(new Cliente("Mar_ina", 29, "Femenino", false, null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/clientes/sugerencias").param("q", "Mar"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].nombre", is("Mar_ina")))
+                .andExpect(jsonPath("$[1].nombre", is("Mariano Gil")))
+                .andExpect(jsonPath("$[1].edad", is(67)))
+                .andExpect(jsonPath("$[2].nombre", is("Marta Soler")));
+        mockMvc.perform(get("/api/clientes/sugerencias").param("q", "Mar").param("limite", "1"))
+                .andExpect(jsonPath("$", hasSize(1)));
+        mockMvc.perform(get("/api/clientes/sugerencias").param("q", "Mar_"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].nombre", is("Mar_ina")));
+        mockMvc.perform(get("/api/clientes/sugerencias").param("q", "Mario"))
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/api/clientes/sugerencias").param("q", " "))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
 }
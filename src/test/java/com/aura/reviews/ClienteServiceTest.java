@@ -20,7 +20,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.aura.reviews.entity.Cliente;
 import com.aura.reviews.repository.ClienteRepository;
+import com.aura.reviews.service.EstadisticasCache;
+import com.aura.reviews.service.IndiceBusquedaClientes;
+import com.aura.reviews.service.IndiceBusquedaReviews;
 import com.aura.reviews.service.ClienteService;
+import com.aura.reviews.service.TokenCambios;
 
 // Tests unitarios de ClienteService con Mockito (sin contexto Spring)
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +33,18 @@ class ClienteServiceTest {
     @Mock
     private ClienteRepository clienteRepository;
 
+    @Mock
+    private EstadisticasCache estadisticasCache;
+
+    @Mock
+    private IndiceBusquedaReviews indiceBusquedaReviews;
+
+    @Mock
+    private IndiceBusquedaClientes indiceBusqueda;
+
+    @Mock
+    private TokenCambios tokenCambios;
+
     @InjectMocks
     private ClienteService clienteService;
 
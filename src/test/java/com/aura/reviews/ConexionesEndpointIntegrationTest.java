@@ -0,0 +1,74 @@
+package com.aura.reviews;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+// Tests de integración de /actuator/conexiones. BD H2 propia: con umbral 0 toda petición de
+// conexión cuenta como pico y el contexto no se comparte con los demás tests
+@SpringBootTest(properties = {
+        "aura.conexiones.umbral-espera=0ms",
+        "spring.datasource.url=jdbc:h2:mem:conexiones;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConexionesEndpointIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    // La pila es la del hilo que retiene la conexión en el momento de la consulta
+    @Test
+    @DisplayName("TC-I31: GET /actuator/conexiones muestra quién retiene cada conexión y el último pico")
+    void conexiones_conexionRetenida_muestraHiloYPila() throws Exception {
+        // Arrange - otro hilo pide una conexión y la retiene
+        CountDownLatch obtenida = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Thread hilo = new Thread(() -> retener(obtenida, liberar), "retiene-conexion");
+        hilo.start();
+        obtenida.await();
+
+        try {
+            // Act & Assert
+            mockMvc.perform(get("/actuator/conexiones"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].activas").value(1))
+                    .andExpect(jsonPath("$[0].prestamos[*].hilo", hasItem("retiene-conexion")))
+                    .andExpect(content().string(containsString("ConexionesEndpointIntegrationTest.retener")))
+                    .andExpect(jsonPath("$[0].ultimoPico.prestamos", notNullValue()));
+        } finally {
+            liberar.countDown();
+            hilo.join();
+        }
+    }
+
+    private void retener(CountDownLatch obtenida, CountDownLatch liberar) {
+        try (Connection retenida = dataSource.getConnection()) {
+            obtenida.countDown();
+            liberar.await();
+        } catch (SQLException | InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.aura.reviews;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.aura.reviews.dto.ReviewResumen;
+import com.aura.reviews.entity.Cliente;
+import com.aura.reviews.entity.Review;
+import com.aura.reviews.repository.ClienteRepository;
+import com.aura.reviews.repository.ReviewRepository;
+import com.aura.reviews.service.ClienteService;
+import com.aura.reviews.service.IndiceBusquedaClientes;
+import com.aura.reviews.service.IndiceBusquedaReviews;
+import com.aura.reviews.service.ReviewService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Evita regresiones N+1: cada página se sirve con un número fijo de sentencias
+// (contenido + count), sin importar el tamaño de página. Los borrados por id leen la entidad de
+// la caché de segundo nivel y solo desalojan su entrada, no la región entera
+@SpringBootTest
+@ActiveProfiles("test")
+class ConsultasPaginadasStatementsTest {
+
+    private static final int TOTAL_CLIENTES = 12;
+    private static final int MAX_SENTENCIAS_POR_PAGINA = 2;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private IndiceBusquedaReviews indiceBusquedaReviews;
+
+    @Autowired
+    private IndiceBusquedaClientes indiceBusquedaClientes;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+
+    // Cada cliente con su review, sin transacción compartida con el test
+    @BeforeEach
+    void prepararDatos() {
+        reviewRepository.deleteAll();
+        clienteRepository.deleteAll();
+        for (int i = 1; i <= TOTAL_CLIENTES; i++) {
+            Cliente cliente = clienteRepository.save(new Cliente("Cliente " + i, 20 + i, "Femenino", false, null));
+            reviewRepository.save(new Review("Opinión número " + i, (i % 5) + 1, cliente));
+        }
+        // Los datos se insertan con el repositorio: se reconstruyen los índices de búsqueda
+        indiceBusquedaReviews.cargar();
+        indiceBusquedaClientes.cargar();
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    @Test
+    @DisplayName("TC-I07: listarPaginado() de reviews no lanza una consulta por cliente")
+    void listarReviewsPaginado_numeroFijoDeSentencias() {
+        Page<Review> pagina = reviewService.listarPaginado(paginaDe(10));
+
+        assertEquals(10, pagina.getContent().size());
+        assertEquals(TOTAL_CLIENTES, pagina.getTotalElements());
+        pagina.getContent().forEach(r -> assertNotNull(r.getCliente().getNombre()));
+        assertSentencias();
+    }
+
+    @Test
+    @DisplayName("TC-I08: buscar() de reviews no lanza una consulta por cliente")
+    void buscarReviews_numeroFijoDeSentencias() {
+        Page<Review> pagina = reviewService.buscar("opinión", paginaDe(10));
+
+        assertEquals(10, pagina.getContent().size());
+        assertEquals(TOTAL_CLIENTES, pagina.getTotalElements());
+        pagina.getContent().forEach(r -> assertNotNull(r.getCliente().getNombre()));
+        assertSentencias();
+    }
+
+    @Test
+    @DisplayName("TC-I09: listarPaginado() de clientes no lanza una consulta por review")
+    void listarClientesPaginado_numeroFijoDeSentencias() {
+        Page<Cliente> pagina = clienteService.listarPaginado(paginaDe(10));
+
+        assertEquals(10, pagina.getContent().size());
+        pagina.getContent().forEach(c -> assertNotNull(c.getReview().getValoracion()));
+        assertSentencias();
+    }
+
+    @Test
+    @DisplayName("TC-I10: buscar() de clientes no lanza una consulta por review")
+    void buscarClientes_numeroFijoDeSentencias() {
+        Page<Cliente> pagina = clienteService.buscar("cliente", paginaDe(10));
+
+        assertEquals(10, pagina.getContent().size());
+        assertEquals(TOTAL_CLIENTES, pagina.getTotalElements());
+        pagina.getContent().forEach(c -> assertNotNull(c.getReview().getValoracion()));
+        assertSentencias();
+    }
+
+    @Test
+    @DisplayName("TC-I32: buscarResumenes() de reviews no carga entidades")
+    void buscarResumenesReviews_sinEntidades() {
+        Page<ReviewResumen> pagina = reviewService.buscarResumenes("opinión", paginaDe(10));
+
+        assertEquals(10, pagina.getContent().size());
+        assertEquals(TOTAL_CLIENTES, pagina.getTotalElements());
+        pagina.getContent().forEach(r -> assertNotNull(r.clienteNombre()));
+        assertEquals(0, estadisticas.getEntityLoadCount());
+        assertSentencias();
+    }
+
+    @Test
+    @DisplayName("TC-I29: borrar() de una review solo desaloja su entrada de la caché de segundo nivel")
+    void borrarReview_restoDeLaRegionSigueEnCache() {
+        List<Long> ids = calentarCache();
+
+        reviewService.borrar(ids.get(0));
+        Review otra = reviewService.buscarPorId(ids.get(1));
+
+        // La review a borrar y la siguiente salen de la caché, con un único DELETE
+        assertEquals(1, estadisticas.getEntityDeleteCount());
+        assertEquals(2, estadisticas.getCacheRegionStatistics("reviews").getHitCount());
+        assertEquals(0, estadisticas.getCacheRegionStatistics("reviews").getMissCount());
+        assertNotNull(otra.getValoracion());
+        assertFalse(reviewRepository.existsById(ids.get(0)));
+    }
+
+    @Test
+    @DisplayName("TC-I30: borrar() de un cliente con review no vacía las regiones de clientes y reviews")
+    void borrarClienteConReview_restoDeLaRegionSigueEnCache() {
+        Cliente cliente = clienteRepository.findAll().get(0);
+        Long otroCliente = clienteRepository.findAll().get(1).getId();
+        List<Long> ids = calentarCache();
+        Long otraReview = ids.stream().filter(id -> !id.equals(cliente.getReview().getId())).findFirst().orElseThrow();
+
+        clienteService.borrar(cliente.getId());
+        reviewService.buscarPorId(otraReview);
+        clienteService.buscarPorId(otroCliente);
+
+        // Un DELETE por tabla y las demás entradas siguen en caché
+        assertEquals(2, estadisticas.getEntityDeleteCount());
+        assertEquals(0, estadisticas.getCacheRegionStatistics("reviews").getMissCount());
+        assertEquals(0, estadisticas.getCacheRegionStatistics("clientes").getMissCount());
+        assertTrue(estadisticas.getCacheRegionStatistics("clientes").getHitCount() >= 2);
+        assertFalse(clienteRepository.existsById(cliente.getId()));
+        assertEquals(TOTAL_CLIENTES - 1, reviewRepository.count());
+    }
+
+    // Carga todas las reviews por id para dejarlas en la caché de segundo nivel
+    private List<Long> calentarCache() {
+        List<Long> ids = reviewRepository.findAll().stream().map(Review::getId).toList();
+        ids.forEach(reviewService::buscarPorId);
+        estadisticas.clear();
+        return ids;
+    }
+
+    private Pageable paginaDe(int tamano) {
+        return PageRequest.of(0, tamano, Sort.by("id").descending());
+    }
+
+    private void assertSentencias() {
+        long sentencias = estadisticas.getPrepareStatementCount();
+        assertTrue(sentencias <= MAX_SENTENCIAS_POR_PAGINA,
+                "Se esperaban como mucho " + MAX_SENTENCIAS_POR_PAGINA + " sentencias y se ejecutaron " + sentencias);
+    }
+}
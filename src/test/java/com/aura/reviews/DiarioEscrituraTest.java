@@ -0,0 +1,123 @@
+package com.aura.reviews;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.aura.reviews.service.DiarioEscritura;
+
+// Tests unitarios del diario de la ingesta asíncrona (ficheros en un directorio temporal)
+class DiarioEscrituraTest {
+
+    private static final int TAMANO_SEGMENTO = 64;
+
+    @TempDir
+    Path directorio;
+
+    // Registros de 20 bytes (28 con cabecera): caben 2 por segmento de 64
+    @Test
+    @DisplayName("TC-U13: al reabrir, el diario se relee desde la posición confirmada y borra los segmentos aplicados")
+    void reabrir_releeDesdeConfirmadoYBorraSegmentosAplicados() throws IOException {
+        // Arrange
+        DiarioEscritura diario = new DiarioEscritura(directorio, TAMANO_SEGMENTO);
+        for (int i = 0; i < 5; i++) {
+            diario.anadir(registro(i));
+        }
+        DiarioEscritura.Lectura aplicados = diario.leer(diario.confirmada(), 3);
+        diario.confirmar(aplicados.siguiente());
+
+        // Act - reinicio: nueva instancia sobre los mismos ficheros
+        DiarioEscritura reabierto = new DiarioEscritura(directorio, TAMANO_SEGMENTO);
+        reabierto.anadir(registro(5));
+        DiarioEscritura.Lectura pendientes = reabierto.leer(reabierto.confirmada(), 10);
+
+        // Assert
+        assertEquals(3, pendientes.registros().size());
+        assertArrayEquals(registro(3), pendientes.registros().get(0));
+        assertArrayEquals(registro(5), pendientes.registros().get(2));
+        assertEquals(2, segmentos().size(), "El primer segmento ya estaba aplicado");
+    }
+
+    // Caída a mitad de escritura: el registro incompleto no se lee y se sobrescribe
+    @Test
+    @DisplayName("TC-U14: un registro a medias al final del diario se descarta al reabrir")
+    void reabrir_registroIncompleto_seDescarta() throws IOException {
+        // Arrange - longitud escrita pero datos y CRC sin llegar a disco
+        DiarioEscritura diario = new DiarioEscritura(directorio, TAMANO_SEGMENTO);
+        diario.anadir(registro(0));
+        try (FileChannel canal = FileChannel.open(segmentos().get(0), StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.allocate(4).putInt(0, 20), 28);
+        }
+
+        // Act
+        DiarioEscritura reabierto = new DiarioEscritura(directorio, TAMANO_SEGMENTO);
+        reabierto.anadir(registro(1));
+        DiarioEscritura.Lectura lectura = reabierto.leer(reabierto.confirmada(), 10);
+
+        // Assert
+        assertEquals(2, lectura.registros().size());
+        assertArrayEquals(registro(1), lectura.registros().get(1));
+        assertTrue(reabierto.leer(lectura.siguiente(), 10).registros().isEmpty());
+    }
+
+    // Añadidos concurrentes que cambian de segmento: todos los confirmados siguen al reabrir
+    @Test
+    @DisplayName("TC-U16: los registros añadidos a la vez desde varios hilos se conservan al reabrir")
+    void anadirConcurrente_todosLosRegistrosAlReabrir() throws Exception {
+        // Arrange
+        DiarioEscritura diario = new DiarioEscritura(directorio, TAMANO_SEGMENTO);
+
+        // Act
+        try (ExecutorService hilos = Executors.newFixedThreadPool(4)) {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                byte[] datos = registro(i);
+                tareas.add(hilos.submit(() -> {
+                    diario.anadir(datos);
+                    return null;
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        }
+        DiarioEscritura reabierto = new DiarioEscritura(directorio, TAMANO_SEGMENTO);
+
+        // Assert
+        Set<String> leidos = reabierto.leer(reabierto.confirmada(), 100).registros().stream()
+                .map(datos -> new String(datos, StandardCharsets.UTF_8))
+                .collect(Collectors.toSet());
+        assertEquals(40, leidos.size());
+        assertTrue(leidos.contains("registro numero 0039"));
+    }
+
+    private static byte[] registro(int numero) {
+        return String.format("registro numero %04d", numero).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private List<Path> segmentos() throws IOException {
+        try (Stream<Path> ficheros = Files.list(directorio)) {
+            return ficheros.filter(f -> f.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.aura.reviews;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.aura.reviews.dto.DatosEstadisticosCliente;
+import com.aura.reviews.dto.EstadisticasClientes;
+import com.aura.reviews.dto.EstadisticasPanel;
+import com.aura.reviews.service.EstadisticasCache;
+import com.aura.reviews.service.InformeService;
+
+// Tests unitarios de EstadisticasCache (sin contexto Spring ni transacción)
+class EstadisticasCacheTest {
+
+    // Una modificación mueve el cliente de franja, género e intolerancia
+    @Test
+    @DisplayName("TC-U07: actualizarCliente() aplica el delta entre el valor anterior y el nuevo")
+    void actualizarCliente_moverDeFranja_aplicaDelta() {
+        // Arrange
+        EstadisticasCache cache = new EstadisticasCache();
+        DatosEstadisticosCliente original = new DatosEstadisticosCliente("Femenino", 24, false);
+        DatosEstadisticosCliente modificado = new DatosEstadisticosCliente("Masculino", 25, true);
+
+        // Act - alta y después modificación
+        cache.actualizarCliente(null, original);
+        cache.actualizarCliente(original, modificado);
+
+        // Assert
+        EstadisticasClientes estadisticas = cache.estadisticasClientes();
+        assertFalse(estadisticas.porGenero().containsKey("Femenino"), "Los géneros a 0 no se muestran");
+        assertEquals(1L, estadisticas.porGenero().get("Masculino"));
+        assertEquals(0L, estadisticas.porFranjaEdad().get("15-24"));
+        assertEquals(1L, estadisticas.porFranjaEdad().get("25-35"));
+        assertEquals(1L, estadisticas.porIntolerancia().get(InformeService.CON_INTOLERANCIA));
+        assertEquals(0L, estadisticas.porIntolerancia().get(InformeService.SIN_INTOLERANCIA));
+    }
+
+    // Cambio de valoración y borrado de review
+    @Test
+    @DisplayName("TC-U08: actualizarReview() mueve la review entre estrellas y la descuenta al borrar")
+    void actualizarReview_cambioYBorrado_actualizaHistograma() {
+        // Arrange
+        EstadisticasCache cache = new EstadisticasCache();
+
+        // Act
+        cache.actualizarReview(null, 2);
+        cache.actualizarReview(null, 5);
+        cache.actualizarReview(2, 4);
+        cache.actualizarReview(5, null);
+
+        // Assert
+        assertEquals(0L, cache.reviewsPorValoracion().get(2));
+        assertEquals(1L, cache.reviewsPorValoracion().get(4));
+        assertEquals(0L, cache.reviewsPorValoracion().get(5));
+        assertEquals(5, cache.reviewsPorValoracion().size());
+    }
+
+    // Varias escrituras entre dos cortes llegan al stream como un único delta neto
+    @Test
+    @DisplayName("TC-U15: tomarCambios() agrupa los cambios desde el corte anterior y los pone a cero")
+    void tomarCambios_variasEscrituras_unSoloDeltaNeto() {
+        // Arrange
+        EstadisticasCache cache = new EstadisticasCache();
+        DatosEstadisticosCliente cliente = new DatosEstadisticosCliente("Femenino", 30, false);
+        cache.actualizarCliente(null, cliente);
+        cache.tomarCambios(false);
+
+        // Act
+        cache.actualizarReview(null, 4);
+        cache.actualizarReview(null, 4);
+        cache.actualizarReview(4, 2);
+        cache.actualizarCliente(cliente, new DatosEstadisticosCliente("Femenino", 30, true));
+        EstadisticasCache.Corte corte = cache.tomarCambios(true);
+
+        // Assert - el género no cambia y no aparece; la foto tiene los totales
+        EstadisticasPanel delta = EstadisticasCache.panel(corte.cambios());
+        assertEquals(1L, delta.reviewsPorEstrellas().get(4));
+        assertEquals(1L, delta.reviewsPorEstrellas().get(2));
+        assertTrue(delta.clientesPorGenero().isEmpty());
+        assertTrue(delta.clientesPorEdad().isEmpty());
+        assertEquals(1L, delta.clientesPorIntolerancia().get(InformeService.CON_INTOLERANCIA));
+        assertEquals(-1L, delta.clientesPorIntolerancia().get(InformeService.SIN_INTOLERANCIA));
+        assertEquals(1L, EstadisticasCache.panel(corte.foto()).clientesPorGenero().get("Femenino"));
+        assertTrue(cache.tomarCambios(false).cambios().isEmpty());
+    }
+}
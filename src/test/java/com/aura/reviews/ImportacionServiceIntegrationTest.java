@@ -0,0 +1,165 @@
+package com.aura.reviews;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.aura.reviews.dto.EstadoImportacion;
+import com.aura.reviews.entity.Cliente;
+import com.aura.reviews.repository.ClienteRepository;
+import com.aura.reviews.repository.ReviewRepository;
+import com.aura.reviews.service.ImportacionService;
+
+// Tests de integración de ImportacionService con H2. Sin @Transactional: la importación
+// se ejecuta en otro hilo y confirma cada bloque en su propia transacción
+@SpringBootTest
+@ActiveProfiles("test")
+class ImportacionServiceIntegrationTest {
+
+    @Autowired
+    private ImportacionService importacionService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Value("${aura.importacion.directorio}")
+    private String directorio;
+
+    @BeforeEach
+    void limpiarBaseDatos() {
+        reviewRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+
+    // Las filas válidas se guardan y las incorrectas van al fichero de rechazados
+    @Test
+    @DisplayName("TC-I17: una importación CSV guarda las filas válidas y deja las demás en rechazados")
+    void importarReviewsCsv_separaValidasYRechazadas() throws Exception {
+        // Arrange - descripción entre comillas con coma y salto de línea
+        Cliente ana = clienteRepository.save(new Cliente("Ana López", 30, "Femenino", false, null));
+        Cliente luis = clienteRepository.save(new Cliente("Luis Gil", 40, "Masculino", false, null));
+        String csv = "descripcion,valoracion,cliente_id\n"
+                + "\"Muy rico, volveré\nsin duda\",5," + ana.getId() + "\n"
+                + "Demasiado caro,9," + luis.getId() + "\n"
+                + "Correcto,3," + luis.getId() + "\n"
+                + "Otra más,4," + luis.getId() + "\n"
+                + "Sin número,x," + ana.getId() + "\n";
+
+        // Act
+        EstadoImportacion inicial = importacionService.iniciar(ImportacionService.Tipo.REVIEWS,
+                ImportacionService.Formato.CSV, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        EstadoImportacion estado = esperarFin(inicial.id());
+
+        // Assert - valoración fuera de rango, segunda review del cliente y número incorrecto
+        assertEquals(EstadoImportacion.Estado.COMPLETADA, estado.estado());
+        assertEquals(2, estado.guardados());
+        assertEquals(3, estado.rechazados());
+        assertEquals(5, estado.ultimoRegistroConfirmado());
+        assertEquals(2, reviewRepository.count());
+
+        List<String> rechazados = Files.readAllLines(importacionService.ficheroRechazados(inicial.id()).orElseThrow());
+        assertEquals(4, rechazados.size());
+        assertEquals("registro,errores,contenido", rechazados.get(0));
+        assertTrue(rechazados.get(1).startsWith("2,"));
+        assertTrue(rechazados.get(2).startsWith("4,"));
+        assertTrue(rechazados.get(3).startsWith("5,"));
+    }
+
+    // Reanudar continúa después del último registro confirmado
+    @Test
+    @DisplayName("TC-I18: reanudar() no repite los registros anteriores al punto de control")
+    void reanudar_continuaDesdePuntoDeControl() throws Exception {
+        // Arrange - importación interrumpida tras confirmar los 2 primeros registros
+        String id = UUID.randomUUID().toString();
+        Path carpeta = Files.createDirectories(Path.of(directorio, id));
+        Files.writeString(carpeta.resolve("datos"), """
+                {"nombre":"Ya importado 1","edad":20,"genero":"Femenino","intolerancia":false}
+                {"nombre":"Ya importado 2","edad":21,"genero":"Femenino","intolerancia":false}
+                {"nombre":"Marta Ruiz","edad":22,"genero":"Femenino","intolerancia":false}
+                {"nombre":"Pedro Sanz","edad":23,"genero":"Masculino","intolerancia":true,"detalleIntolerancia":"Gluten"}
+                """);
+        Files.writeString(carpeta.resolve("control.properties"), """
+                tipo=CLIENTES
+                formato=NDJSON
+                checkpoint=2
+                guardados=2
+                rechazados=0
+                bytesRechazados=0
+                """);
+
+        // Act
+        importacionService.reanudar(id).orElseThrow();
+        EstadoImportacion estado = esperarFin(id);
+
+        // Assert
+        assertEquals(EstadoImportacion.Estado.COMPLETADA, estado.estado());
+        assertEquals(4, estado.guardados());
+        assertEquals(4, estado.ultimoRegistroConfirmado());
+        assertEquals(2, clienteRepository.count());
+    }
+
+    // Caída justo después del commit de un bloque: el punto de control está en BD con el bloque,
+    // así que reanudar no vuelve a insertar clientes ni reviews sin cliente
+    @Test
+    @DisplayName("TC-I36: reanudar tras una caída después del commit no duplica registros")
+    void reanudar_trasCommitDelBloque_noDuplica() throws Exception {
+        // Arrange - importación completa y control.properties de antes del primer bloque
+        String ndjson = """
+                {"nombre":"Marta Ruiz","edad":22,"genero":"Femenino","intolerancia":false}
+                {"nombre":"Pedro Sanz","edad":23,"genero":"Masculino","intolerancia":false}
+                {"nombre":"Edad mal","edad":-1,"genero":"Masculino","intolerancia":false}
+                """;
+        String id = importacionService.iniciar(ImportacionService.Tipo.CLIENTES, ImportacionService.Formato.NDJSON,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8))).id();
+        esperarFin(id);
+        Path control = Path.of(directorio, id, "control.properties");
+        Files.writeString(control, """
+                tipo=CLIENTES
+                formato=NDJSON
+                checkpoint=0
+                guardados=0
+                rechazados=0
+                bytesRechazados=0
+                """);
+
+        // Act
+        importacionService.reanudar(id).orElseThrow();
+        EstadoImportacion estado = esperarFin(id);
+
+        // Assert
+        assertEquals(EstadoImportacion.Estado.COMPLETADA, estado.estado());
+        assertEquals(2, estado.guardados());
+        assertEquals(1, estado.rechazados());
+        assertEquals(3, estado.ultimoRegistroConfirmado());
+        assertEquals(2, clienteRepository.count());
+        assertEquals(2, Files.readAllLines(importacionService.ficheroRechazados(id).orElseThrow()).size());
+    }
+
+    private EstadoImportacion esperarFin(String id) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            EstadoImportacion estado = importacionService.consultar(id).orElseThrow();
+            if (estado.estado() != EstadoImportacion.Estado.EN_CURSO) {
+                return estado;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("La importación " + id + " no ha terminado");
+    }
+}
@@ -0,0 +1,52 @@
+package com.aura.reviews;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.aura.reviews.service.IndiceBusquedaClientes;
+
+// Tests unitarios del índice de búsqueda de clientes (sin contexto Spring ni transacción)
+class IndiceBusquedaClientesTest {
+
+    // Misma semántica que LIKE '%q%' sobre nombre o género, sin tildes ni mayúsculas
+    @Test
+    @DisplayName("TC-U11: buscar() encuentra subcadenas del nombre y del género")
+    void buscar_subcadenaEnNombreOGenero() {
+        // Arrange
+        IndiceBusquedaClientes indice = new IndiceBusquedaClientes();
+        indice.indexar(1L, "María López", "Femenino");
+        indice.indexar(2L, "Mario Ruiz", "Masculino");
+        indice.indexar(3L, "Lucía Marín", "Femenino");
+
+        // Act & Assert
+        assertEquals(List.of(1L, 2L, 3L), indice.buscar("MARÍ"), "María, Mario y Marín");
+        assertEquals(List.of(1L), indice.buscar("lopez"));
+        assertEquals(List.of(1L, 3L), indice.buscar("ía"), "Menos de 3 caracteres");
+        assertEquals(List.of(1L, 3L), indice.buscar("femen"));
+        assertEquals(List.of(1L, 2L, 3L), indice.buscar("ino"), "Femenino y Masculino");
+        assertEquals(List.of(), indice.buscar("riol"));
+    }
+
+    // Mantenimiento incremental
+    @Test
+    @DisplayName("TC-U12: buscar() refleja modificaciones y bajas")
+    void buscar_reflejaModificacionesYBajas() {
+        // Arrange
+        IndiceBusquedaClientes indice = new IndiceBusquedaClientes();
+        indice.indexar(1L, "Pedro Gómez", "Masculino");
+        indice.indexar(2L, "Pedro Sanz", "Masculino");
+
+        // Act
+        indice.indexar(1L, "Pablo Gómez", "Masculino");
+        indice.eliminar(2L);
+
+        // Assert
+        assertEquals(List.of(), indice.buscar("pedro"));
+        assertEquals(List.of(1L), indice.buscar("pablo"));
+        assertEquals(List.of(1L), indice.buscar("masculino"));
+    }
+}
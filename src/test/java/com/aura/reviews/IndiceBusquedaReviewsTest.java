@@ -0,0 +1,55 @@
+package com.aura.reviews;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.aura.reviews.service.IndiceBusquedaReviews;
+
+// Tests unitarios del índice de búsqueda de reviews (sin contexto Spring ni transacción)
+class IndiceBusquedaReviewsTest {
+
+    // Sin tildes, por prefijo y con todos los términos (AND)
+    @Test
+    @DisplayName("TC-U09: buscar() ignora tildes, acepta prefijos y exige todos los términos")
+    void buscar_insensibleATildesPrefijoYAnd() {
+        // Arrange
+        IndiceBusquedaReviews indice = new IndiceBusquedaReviews();
+        indice.indexar(1L, "La paella estaba riquísima");
+        indice.indexar(2L, "Paella sosa y fría");
+        indice.indexar(3L, "Servicio rápido, postre rico");
+
+        // Act & Assert
+        assertEquals(List.of(1L), indice.buscar("RIQUISIMA"));
+        assertEquals(Set.of(1L, 2L), Set.copyOf(indice.buscar("paell")));
+        assertEquals(List.of(2L), indice.buscar("paella fria"));
+        assertEquals(List.of(), indice.buscar("paella postre"));
+        assertNull(indice.buscar("de la y"), "Solo palabras vacías: no se usa el índice");
+    }
+
+    // Relevancia: a igual término, el documento corto va antes que el largo; bajas y modificaciones
+    @Test
+    @DisplayName("TC-U10: buscar() ordena por relevancia y refleja modificaciones y bajas")
+    void buscar_ordenaPorRelevanciaYSeActualiza() {
+        // Arrange
+        IndiceBusquedaReviews indice = new IndiceBusquedaReviews();
+        indice.indexar(1L, "Buen servicio pero la comida llegó fría y el local muy ruidoso");
+        indice.indexar(2L, "Comida excelente");
+        indice.indexar(3L, "Comida casera, raciones generosas, buen precio y trato amable del personal");
+
+        // Act
+        List<Long> antes = indice.buscar("comida");
+        indice.indexar(2L, "Postre excelente");
+        indice.eliminar(3L);
+        List<Long> despues = indice.buscar("comida");
+
+        // Assert
+        assertEquals(List.of(2L, 1L, 3L), antes);
+        assertEquals(List.of(1L), despues);
+    }
+}
@@ -0,0 +1,70 @@
+package com.aura.reviews;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.aura.reviews.dto.EstadisticasClientes;
+import com.aura.reviews.entity.Cliente;
+import com.aura.reviews.repository.ClienteRepository;
+import com.aura.reviews.repository.ReviewRepository;
+import com.aura.reviews.service.InformeService;
+
+// Tests de integración de InformeService (agregación en BD con H2)
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class InformeServiceIntegrationTest {
+
+    @Autowired
+    private InformeService informeService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @BeforeEach
+    void limpiarBaseDatos() {
+        reviewRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+
+    // Los conteos agrupados en SQL coinciden con las franjas de FranjaEdad
+    @Test
+    @DisplayName("TC-I06: calcularEstadisticasClientes() agrupa por género, franja de edad e intolerancia")
+    void calcularEstadisticasClientes_agrupaEnUnaConsulta() {
+        // Arrange - edades en los límites de cada franja
+        clienteRepository.save(new Cliente("Niño Pérez", 15, "Masculino", false, null));
+        clienteRepository.save(new Cliente("Eva Ruiz", 16, "Femenino", true, "Gluten"));
+        clienteRepository.save(new Cliente("Iván Gil", 35, "Masculino", false, null));
+        clienteRepository.save(new Cliente("Rosa Vidal", 36, "Femenino", false, null));
+        clienteRepository.save(new Cliente("Luis Mora", 65, "Masculino", true, "Lactosa"));
+        clienteRepository.save(new Cliente("Ana Sanz", 66, "Femenino", false, null));
+
+        // Act
+        EstadisticasClientes estadisticas = informeService.calcularEstadisticasClientes();
+
+        // Assert
+        assertEquals(3L, estadisticas.porGenero().get("Masculino"));
+        assertEquals(3L, estadisticas.porGenero().get("Femenino"));
+
+        assertEquals(6, estadisticas.porFranjaEdad().size());
+        assertEquals(1L, estadisticas.porFranjaEdad().get("0-15"));
+        assertEquals(1L, estadisticas.porFranjaEdad().get("15-24"));
+        assertEquals(1L, estadisticas.porFranjaEdad().get("25-35"));
+        assertEquals(1L, estadisticas.porFranjaEdad().get("36-50"));
+        assertEquals(1L, estadisticas.porFranjaEdad().get("51-65"));
+        assertEquals(1L, estadisticas.porFranjaEdad().get("66+"));
+
+        assertEquals(2L, estadisticas.porIntolerancia().get(InformeService.CON_INTOLERANCIA));
+        assertEquals(4L, estadisticas.porIntolerancia().get(InformeService.SIN_INTOLERANCIA));
+    }
+}
@@ -0,0 +1,167 @@
+package com.aura.reviews;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.aura.reviews.dto.EstadoSeguimiento;
+import com.aura.reviews.entity.Cliente;
+import com.aura.reviews.repository.ClienteRepository;
+import com.aura.reviews.repository.ReviewRechazadaRepository;
+import com.aura.reviews.repository.ReviewRepository;
+import com.aura.reviews.service.IngestaReviewsService;
+
+import tools.jackson.databind.ObjectMapper;
+
+// Tests de integración de la ingesta asíncrona de reviews. BD H2 propia (el contexto tiene
+// otra configuración) y sin @Transactional: el escritor vuelca el diario en otro hilo
+@SpringBootTest(properties = {
+        "aura.ingesta.asincrona=true",
+        "aura.ingesta.tamano-segmento=4KB",
+        "spring.datasource.url=jdbc:h2:mem:ingesta;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IngestaReviewsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IngestaReviewsService ingestaReviews;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private ReviewRechazadaRepository reviewRechazadaRepository;
+
+    private static Path directorio;
+
+    // Diario en un directorio nuevo en cada ejecución
+    @DynamicPropertySource
+    static void directorioIngesta(DynamicPropertyRegistry registro) throws IOException {
+        directorio = Files.createTempDirectory("aura-ingesta");
+        registro.add("aura.ingesta.directorio", directorio::toString);
+    }
+
+    @BeforeEach
+    void limpiarBaseDatos() {
+        reviewRepository.deleteAll();
+        clienteRepository.deleteAll();
+    }
+
+    // 202 con seguimiento; después GUARDADA, o RECHAZADA si el cliente no existe
+    @Test
+    @DisplayName("TC-I20: POST /api/reviews responde 202 y el escritor guarda la review en segundo plano")
+    void crearReview_asincrona_seGuardaTrasResponder() throws Exception {
+        // Arrange
+        Cliente cliente = clienteRepository.save(new Cliente("Lucía Prieto", 29, "Femenino", false, null));
+
+        // Act
+        String aceptada = crear("{\"descripcion\": \"Rápido y rico\", \"valoracion\": 5, \"cliente\": {\"id\": "
+                + cliente.getId() + "}}");
+        String rechazada = crear("{\"descripcion\": \"Sin cliente real\", \"valoracion\": 3, \"cliente\": {\"id\": -1}}");
+
+        // Assert
+        EstadoSeguimiento guardada = esperarVolcado(aceptada);
+        assertEquals(EstadoSeguimiento.Estado.GUARDADA, guardada.estado());
+        assertEquals(aceptada, reviewRepository.findById(guardada.reviewId()).orElseThrow().getIdSeguimiento());
+
+        EstadoSeguimiento error = esperarVolcado(rechazada);
+        assertEquals(EstadoSeguimiento.Estado.RECHAZADA, error.estado());
+        assertEquals("Cliente no encontrado con ID: -1", error.errores().get(0));
+    }
+
+    // Caída tras guardar y antes de confirmar la posición: al reaplicar no se duplica
+    @Test
+    @DisplayName("TC-I21: reaplicar el diario tras un reinicio no duplica las reviews ya guardadas")
+    void reaplicarDiario_sinConfirmar_esIdempotente() throws Exception {
+        // Arrange
+        Cliente cliente = clienteRepository.save(new Cliente("Jorge Vera", 41, "Masculino", true, "Marisco"));
+        String idSeguimiento = crear("{\"descripcion\": \"Bien\", \"valoracion\": 4, \"cliente\": {\"id\": "
+                + cliente.getId() + "}}");
+        esperarVolcado(idSeguimiento);
+
+        // Act - reinicio con la posición confirmada perdida
+        ingestaReviews.detener();
+        Files.delete(directorio.resolve("confirmado.properties"));
+        ingestaReviews.abrir();
+        ingestaReviews.arrancarEscritor();
+        EstadoSeguimiento estado = esperarVolcado(idSeguimiento);
+
+        // Assert
+        assertEquals(EstadoSeguimiento.Estado.GUARDADA, estado.estado());
+        assertEquals(1, reviewRepository.count());
+    }
+
+    // El rechazo se guarda en BD: tras reiniciar el servicio el seguimiento sigue respondiendo
+    @Test
+    @DisplayName("TC-I41: una review rechazada sigue constando como RECHAZADA tras un reinicio")
+    void rechazada_trasReinicio_sigueRechazada() throws Exception {
+        // Arrange
+        String idSeguimiento = crear("{\"descripcion\": \"Cliente borrado\", \"valoracion\": 2, \"cliente\": {\"id\": -7}}");
+        esperarVolcado(idSeguimiento);
+
+        // Act
+        ingestaReviews.detener();
+        ingestaReviews.abrir();
+        ingestaReviews.arrancarEscritor();
+
+        // Assert
+        EstadoSeguimiento estado = ingestaReviews.consultar(idSeguimiento).orElseThrow();
+        assertEquals(EstadoSeguimiento.Estado.RECHAZADA, estado.estado());
+        assertEquals(List.of("Cliente no encontrado con ID: -7"), estado.errores());
+        assertTrue(reviewRechazadaRepository.existsById(idSeguimiento));
+    }
+
+    private String crear(String json) throws Exception {
+        String respuesta = mockMvc.perform(post("/api/reviews")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", containsString("/api/reviews/seguimiento/")))
+                .andExpect(jsonPath("$.estado", is("PENDIENTE")))
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(respuesta, EstadoSeguimiento.class).idSeguimiento();
+    }
+
+    private EstadoSeguimiento esperarVolcado(String idSeguimiento) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            EstadoSeguimiento estado = ingestaReviews.consultar(idSeguimiento).orElseThrow();
+            if (estado.estado() != EstadoSeguimiento.Estado.PENDIENTE) {
+                return estado;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("La review " + idSeguimiento + " sigue pendiente");
+    }
+}
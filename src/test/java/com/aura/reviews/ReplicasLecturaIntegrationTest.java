@@ -0,0 +1,163 @@
+package com.aura.reviews;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.aura.reviews.config.DataSourceEnrutado;
+import com.aura.reviews.entity.Cliente;
+import com.aura.reviews.repository.ClienteRepository;
+import com.aura.reviews.repository.ReviewRepository;
+import com.aura.reviews.service.ClienteService;
+import com.aura.reviews.service.LecturasEnPrimaria;
+
+import jakarta.servlet.http.Cookie;
+
+// Tests de integración del enrutado a réplicas con dos BD H2: la primaria de la aplicación y
+// una réplica a la que el test copia el esquema. La réplica no se replica de verdad: un cliente
+// insertado solo en ella indica qué BD ha respondido a cada lectura
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primaria-enrutada;DB_CLOSE_DELAY=-1",
+        "aura.replicas.urls=" + ReplicasLecturaIntegrationTest.REPLICA,
+        "aura.replicas.comprobacion-ms=100",
+        "aura.replicas.consulta-salud=SELECT 1 FROM clientes WHERE 1 = 0"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReplicasLecturaIntegrationTest {
+
+    static final String REPLICA = "jdbc:h2:mem:replica-enrutada;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private DataSourceEnrutado dataSourceEnrutado;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    // Réplica con el esquema de la primaria, sin datos, y ya en la rotación
+    @BeforeEach
+    void prepararReplica() throws Exception {
+        reviewRepository.deleteAll();
+        clienteRepository.deleteAll();
+        List<String> esquema = new ArrayList<>();
+        try (Connection primaria = dataSource.getConnection();
+             Statement sentencia = primaria.createStatement();
+             ResultSet filas = sentencia.executeQuery("SCRIPT NODATA")) {
+            while (filas.next()) {
+                esquema.add(filas.getString(1));
+            }
+        }
+        try (Connection replica = DriverManager.getConnection(REPLICA, "sa", "");
+             Statement sentencia = replica.createStatement()) {
+            sentencia.execute("DROP ALL OBJECTS");
+            for (String instruccion : esquema) {
+                sentencia.execute(instruccion);
+            }
+            sentencia.execute("INSERT INTO clientes (id, nombre, edad, genero, intolerancia, version) "
+                    + "VALUES (900001, 'Solo Replica', 30, 'Femenino', FALSE, 0)");
+        }
+        esperar(() -> !dataSourceEnrutado.replicasSanas().isEmpty());
+    }
+
+    // Lecturas readOnly a la réplica; escrituras, y lecturas tras escribir, a la primaria
+    @Test
+    @DisplayName("TC-I27: las lecturas van a la réplica salvo en la ventana tras una escritura")
+    void lecturas_conReplicaSana_seEnrutanPorTipoYCookie() throws Exception {
+        // Arrange
+        clienteService.guardar(new Cliente("Solo Primaria", 45, "Masculino", false, null));
+
+        // Act & Assert - servicio
+        assertTrue(nombres().contains("Solo Replica"));
+        assertFalse(nombres().contains("Solo Primaria"));
+        try (LecturasEnPrimaria.Ambito primaria = LecturasEnPrimaria.abrir()) {
+            assertTrue(nombres().contains("Solo Primaria"));
+        }
+
+        // Act & Assert - HTTP: la escritura deja la cookie y con ella se lee de la primaria
+        mockMvc.perform(post("/api/clientes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nombre\":\"Nueva Alta\",\"edad\":33,\"genero\":\"Femenino\",\"intolerancia\":false}"))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().maxAge("aura-escritura", 5));
+        mockMvc.perform(get("/api/clientes").cookie(new Cookie("aura-escritura", "1")))
+                .andExpect(content().string(containsString("Nueva Alta")))
+                .andExpect(content().string(not(containsString("Solo Replica"))));
+        mockMvc.perform(get("/api/clientes"))
+                .andExpect(content().string(containsString("Solo Replica")))
+                .andExpect(content().string(not(containsString("Nueva Alta"))));
+    }
+
+    // Una réplica que deja de responder sale de la rotación y se lee de la primaria
+    @Test
+    @DisplayName("TC-I28: con la réplica caída las lecturas vuelven a la primaria")
+    void lecturas_replicaCaida_vuelvenALaPrimaria() throws Exception {
+        // Arrange
+        clienteService.guardar(new Cliente("Solo Primaria", 45, "Masculino", false, null));
+        assertTrue(nombres().contains("Solo Replica"));
+
+        // Act - al reconectar, H2 crea una BD vacía en la que falla la consulta de salud
+        try (Connection replica = DriverManager.getConnection(REPLICA, "sa", "");
+             Statement sentencia = replica.createStatement()) {
+            sentencia.execute("SHUTDOWN");
+        }
+        esperar(() -> dataSourceEnrutado.replicasSanas().isEmpty());
+
+        // Assert
+        assertTrue(nombres().contains("Solo Primaria"));
+        assertFalse(nombres().contains("Solo Replica"));
+    }
+
+    private List<String> nombres() {
+        return clienteService.listarPaginado(PageRequest.of(0, 50)).stream().map(Cliente::getNombre).toList();
+    }
+
+    private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            if (condicion.getAsBoolean()) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("La réplica no cambió de estado a tiempo");
+    }
+}
@@ -0,0 +1,204 @@
+package com.aura.reviews;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.aura.reviews.config.DataSourceEnrutado;
+import com.aura.reviews.entity.Cliente;
+import com.aura.reviews.repository.ClienteRepository;
+import com.aura.reviews.repository.ReviewRepository;
+import com.aura.reviews.service.ClienteService;
+import com.aura.reviews.service.LoteService;
+import com.aura.reviews.service.TokenCambios;
+
+// Tests de integración de las cachés con una réplica que va con retraso: una BD H2 aparte a la
+// que el test aplica los cambios de la primaria cuando quiere. Lo leído de la réplica antes de
+// ponerse al día puede quedar en caché, pero solo hasta que se cierra la ventana de escritura
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primaria-retraso;DB_CLOSE_DELAY=-1",
+        "aura.replicas.urls=" + RetrasoReplicasIntegrationTest.REPLICA,
+        "aura.replicas.comprobacion-ms=100",
+        "aura.replicas.consulta-salud=SELECT 1 FROM clientes WHERE 1 = 0",
+        "aura.replicas.ventana-escritura=2s",
+        "aura.cache-html.activa=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RetrasoReplicasIntegrationTest {
+
+    static final String REPLICA = "jdbc:h2:mem:replica-retraso;DB_CLOSE_DELAY=-1";
+
+    // aura.replicas.ventana-escritura
+    private static final Duration VENTANA = Duration.ofSeconds(2);
+
+    private static final int ALTAS_SEGUIDAS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private DataSourceEnrutado dataSourceEnrutado;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private LoteService loteService;
+
+    @Autowired
+    private TokenCambios tokenCambios;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    // Réplica con el esquema de la primaria, sin datos, y ya en la rotación
+    @BeforeEach
+    void prepararReplica() throws Exception {
+        reviewRepository.deleteAll();
+        clienteRepository.deleteAll();
+        List<String> esquema = new ArrayList<>();
+        try (Connection primaria = dataSource.getConnection();
+             Statement sentencia = primaria.createStatement();
+             ResultSet filas = sentencia.executeQuery("SCRIPT NODATA")) {
+            while (filas.next()) {
+                esquema.add(filas.getString(1));
+            }
+        }
+        enReplica("DROP ALL OBJECTS");
+        for (String instruccion : esquema) {
+            enReplica(instruccion);
+        }
+        esperar(() -> !dataSourceEnrutado.replicasSanas().isEmpty());
+    }
+
+    // La réplica aún no tiene el alta: el listado y la página se generan sin ella con el token
+    // nuevo, pero al cerrarse la ventana el ETag y la página cacheada dejan de valer
+    @Test
+    @DisplayName("TC-I38: el ETag y la página cacheada con datos de una réplica atrasada caducan tras la ventana")
+    void listados_replicaAtrasada_noQuedanCacheadosIndefinidamente() throws Exception {
+        // Arrange
+        Cliente alta = clienteService.guardar(new Cliente("Nueva Alta", 33, "Femenino", false, null));
+        MvcResult listado = mockMvc.perform(get("/api/clientes")).andReturn();
+        assertFalse(listado.getResponse().getContentAsString().contains("Nueva Alta"));
+        String etag = listado.getResponse().getHeader(HttpHeaders.ETAG);
+        assertFalse(mockMvc.perform(get("/clientes")).andReturn().getResponse().getContentAsString()
+                .contains("Nueva Alta"));
+
+        // Act - la réplica se pone al día
+        enReplica("INSERT INTO clientes (id, nombre, edad, genero, intolerancia, version) VALUES ("
+                + alta.getId() + ", 'Nueva Alta', 33, 'Femenino', FALSE, 0)");
+
+        // Assert
+        esperar(() -> mockMvc.perform(get("/api/clientes").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andReturn().getResponse().getContentAsString().contains("Nueva Alta"));
+        esperar(() -> mockMvc.perform(get("/clientes"))
+                .andReturn().getResponse().getContentAsString().contains("Nueva Alta"));
+    }
+
+    // Una modificación por lotes desaloja la entidad; el listado la vuelve a cargar de la réplica
+    // (nombre antiguo) y la deja en la caché de segundo nivel, donde la leería también la primaria
+    @Test
+    @DisplayName("TC-I39: una entidad leída de una réplica atrasada sale de la caché de segundo nivel tras la ventana")
+    void cacheSegundoNivel_replicaAtrasada_seDesalojaTrasLaVentana() throws Exception {
+        // Arrange
+        Cliente ana = clienteService.guardar(new Cliente("Ana López", 30, "Femenino", false, null));
+        enReplica("INSERT INTO clientes (id, nombre, edad, genero, intolerancia, version) VALUES ("
+                + ana.getId() + ", 'Ana López', 30, 'Femenino', FALSE, 0)");
+        Cliente modificada = new Cliente("Ana Modificada", 30, "Femenino", false, null);
+        modificada.setId(ana.getId());
+        loteService.guardarClientes(List.of(modificada));
+
+        // Act - lectura de la réplica atrasada y después la réplica se pone al día
+        assertEquals("Ana López", nombres().getFirst());
+        assertEquals("Ana López", clienteService.buscarPorId(ana.getId()).getNombre());
+        enReplica("UPDATE clientes SET nombre = 'Ana Modificada' WHERE id = " + ana.getId());
+
+        // Assert
+        esperar(() -> "Ana Modificada".equals(clienteService.buscarPorId(ana.getId()).getNombre()));
+    }
+
+    // Cada cierre de ventana cambia una vez el token: N altas seguidas suman 2 por alta (al
+    // hacerla y tras el commit) y un solo cierre, no uno por alta
+    @Test
+    @DisplayName("TC-I40: varias escrituras dentro de una ventana provocan un único vaciado de la caché")
+    void ventanaEscritura_escriturasSeguidas_unSoloCierre() throws Exception {
+        // Arrange - sin cierres pendientes de tests anteriores
+        esperarSinCambios();
+        long antes = contadorClientes();
+
+        // Act
+        for (int i = 0; i < ALTAS_SEGUIDAS; i++) {
+            clienteService.guardar(new Cliente("Alta " + i, 30 + i, "Masculino", false, null));
+        }
+
+        // Assert
+        long esperado = antes + 2L * ALTAS_SEGUIDAS + 1;
+        esperar(() -> contadorClientes() == esperado);
+        Thread.sleep(VENTANA.plusMillis(500).toMillis());
+        assertEquals(esperado, contadorClientes());
+    }
+
+    private List<String> nombres() {
+        return clienteService.listarPaginado(PageRequest.of(0, 50)).stream().map(Cliente::getNombre).toList();
+    }
+
+    private long contadorClientes() {
+        String token = tokenCambios.token(TokenCambios.Tabla.CLIENTES);
+        return Long.parseLong(token.substring(token.lastIndexOf('-') + 1));
+    }
+
+    private void esperarSinCambios() throws Exception {
+        long anterior;
+        do {
+            anterior = contadorClientes();
+            Thread.sleep(VENTANA.plusMillis(500).toMillis());
+        } while (contadorClientes() != anterior);
+    }
+
+    private static void enReplica(String sql) throws Exception {
+        try (Connection replica = DriverManager.getConnection(REPLICA, "sa", "");
+             Statement sentencia = replica.createStatement()) {
+            sentencia.execute(sql);
+        }
+    }
+
+    private static void esperar(Callable<Boolean> condicion) throws Exception {
+        for (int i = 0; i < 100; i++) {
+            if (condicion.call()) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("La condición no se cumplió a tiempo");
+    }
+}
@@ -2,6 +2,15 @@ package com.aura.reviews;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -10,9 +19,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.resttestclient.TestRestTemplate;
 import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureTestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -30,6 +42,9 @@ class ReviewE2ETest {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @LocalServerPort
+    private int puerto;
+
     @Autowired
     private ReviewRepository reviewRepository;
 
@@ -170,4 +185,82 @@ class ReviewE2ETest {
             }
         }
     }
+
+    // Exportación CSV filtrada con el cliente unido en SQL, en claro y comprimida
+    @Test
+    @DisplayName("TC-E06: GET /api/reviews/export exporta en CSV filtrando por término y con gzip opcional")
+    void exportarReviewsCsv_filtradoYComprimido() throws Exception {
+        // Datos de prueba: una descripción con coma y comillas
+        Cliente nuria = clienteRepository.save(new Cliente("Nuria Campos", 33, "Femenino", false, null));
+        Cliente pablo = clienteRepository.save(new Cliente("Pablo Rey", 51, "Masculino", false, null));
+        reviewRepository.save(new Review("Paella excelente, \"de las mejores\"", 5, nuria));
+        reviewRepository.save(new Review("Servicio lento", 2, pablo));
+
+        // CSV filtrado por término
+        ResponseEntity<String> csv = restTemplate.getForEntity(
+                "/api/reviews/export?busqueda=PAELLA", String.class);
+
+        assertEquals(HttpStatus.OK, csv.getStatusCode());
+        assertTrue(csv.getHeaders().getContentType().toString().startsWith("text/csv"));
+        String[] lineas = csv.getBody().split("\n");
+        assertEquals(2, lineas.length);
+        assertEquals("id,descripcion,valoracion,cliente_id,cliente_nombre,cliente_edad,cliente_genero", lineas[0]);
+        assertTrue(lineas[1].endsWith(",\"Paella excelente, \"\"de las mejores\"\"\",5," + nuria.getId()
+                + ",Nuria Campos,33,Femenino"));
+
+        // Exportación completa comprimida
+        ResponseEntity<byte[]> comprimido = restTemplate.getForEntity(
+                "/api/reviews/export?gzip=true", byte[].class);
+
+        assertEquals("application/gzip", comprimido.getHeaders().getContentType().toString());
+        try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(comprimido.getBody()))) {
+            String contenido = new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+            assertEquals(3, contenido.split("\n").length);
+            assertTrue(contenido.contains("Servicio lento,2," + pablo.getId()));
+        }
+    }
+
+    // Las reviews sin cliente salen en la exportación con las columnas del cliente vacías
+    @Test
+    @DisplayName("TC-E08: GET /api/reviews/export incluye las reviews sin cliente")
+    void exportarReviewsCsv_incluyeReviewsSinCliente() throws Exception {
+        // Datos de prueba: una review con cliente y otra sin él
+        Cliente nuria = clienteRepository.save(new Cliente("Nuria Campos", 33, "Femenino", false, null));
+        reviewRepository.save(new Review("Paella excelente", 5, nuria));
+        Review sinCliente = reviewRepository.save(new Review("Buen menú del día", 4, null));
+
+        ResponseEntity<String> csv = restTemplate.getForEntity("/api/reviews/export", String.class);
+
+        assertEquals(HttpStatus.OK, csv.getStatusCode());
+        String[] lineas = csv.getBody().split("\n");
+        assertEquals(3, lineas.length);
+        assertEquals(sinCliente.getId() + ",Buen menú del día,4,,,,", lineas[2]);
+    }
+
+    // Un listado de más de 2 KB sale comprimido por Tomcat aunque lleve ETag (débil). Con HttpClient
+    // del JDK: RestTemplate descomprime y quita Content-Encoding
+    @Test
+    @DisplayName("TC-E09: GET /api/reviews con Accept-Encoding: gzip responde comprimido y con ETag débil")
+    void listarReviews_conAcceptEncodingGzip_respondeComprimido() throws Exception {
+        // Datos de prueba: unos 4 KB de JSON
+        for (int i = 0; i < 30; i++) {
+            reviewRepository.save(new Review("Menú del día correcto, postre casero y servicio atento, visita " + i, 4, null));
+        }
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + "/api/reviews?size=30"))
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .build();
+
+        HttpResponse<byte[]> respuesta;
+        try (HttpClient cliente = HttpClient.newHttpClient()) {
+            respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.ofByteArray());
+        }
+
+        assertEquals(HttpStatus.OK.value(), respuesta.statusCode());
+        assertTrue(respuesta.headers().firstValue(HttpHeaders.ETAG).orElseThrow().startsWith("W/"));
+        assertEquals("gzip", respuesta.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+        try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(respuesta.body()))) {
+            assertTrue(new String(entrada.readAllBytes(), StandardCharsets.UTF_8).contains("visita 29"));
+        }
+    }
 }
@@ -1,11 +1,15 @@
 package com.aura.reviews;
 
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -15,9 +19,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.aura.reviews.entity.Cliente;
@@ -25,6 +31,12 @@ import com.aura.reviews.entity.Review;
 import com.aura.reviews.repository.ClienteRepository;
 import com.aura.reviews.repository.ReviewRepository;
 
+import jakarta.persistence.EntityManager;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
 
 // Tests de integración para /api/reviews con MockMvc y H2
 @SpringBootTest
@@ -42,6 +54,9 @@ class ReviewRestControllerIntegrationTest {
     @Autowired
     private ReviewRepository reviewRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     // Limpia BD antes de cada test para evitar datos residuales
     @BeforeEach
     void limpiarBaseDatos() {
@@ -82,6 +97,52 @@ class ReviewRestControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].valoracion", is(4)));
     }
 
+    // ?view=summary: cuatro campos por review, descripción recortada y sin el cliente anidado
+    @Test
+    @DisplayName("TC-I33: GET /api/reviews?view=summary devuelve resúmenes sin la entidad completa")
+    void listarResumenes_camposCompactos() throws Exception {
+        // Arrange
+        Cliente cliente = clienteRepository.save(new Cliente("Sara Gómez", 27, "Femenino", true, "Gluten"));
+        reviewRepository.save(new Review("a".repeat(300), 5, cliente));
+
+        // Act & Assert - página y cursor
+        mockMvc.perform(get("/api/reviews").param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].valoracion", is(5)))
+                .andExpect(jsonPath("$[0].clienteNombre", is("Sara Gómez")))
+                .andExpect(jsonPath("$[0].descripcion", is("a".repeat(97) + "...")))
+                .andExpect(jsonPath("$[0].cliente").doesNotExist());
+        mockMvc.perform(get("/api/reviews").param("view", "summary").param("paginacion", "cursor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido[0].clienteNombre", is("Sara Gómez")))
+                .andExpect(jsonPath("$.contenido[0].cliente").doesNotExist());
+    }
+
+    // Accept: application/cbor o application/x-jackson-smile -> mismo contenido que el JSON
+    @Test
+    @DisplayName("TC-I34: GET /api/reviews negocia CBOR y Smile y responde Vary: Accept")
+    void listarReviews_formatosBinarios() throws Exception {
+        // Arrange
+        Cliente cliente = clienteRepository.save(new Cliente("Sara Gómez", 27, "Femenino", false, null));
+        reviewRepository.save(new Review("Comida deliciosa y servicio rápido", 4, cliente));
+        ObjectMapper[] mappers = {new CBORMapper(), new SmileMapper()};
+        MediaType[] formatos = {MediaType.APPLICATION_CBOR, MediaType.parseMediaType("application/x-jackson-smile")};
+
+        for (int i = 0; i < formatos.length; i++) {
+            // Act
+            MvcResult resultado = mockMvc.perform(get("/api/reviews").accept(formatos[i]))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(formatos[i]))
+                    .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                    .andReturn();
+
+            // Assert
+            JsonNode reviews = mappers[i].readTree(resultado.getResponse().getContentAsByteArray());
+            assertEquals("Comida deliciosa y servicio rápido", reviews.get(0).get("descripcion").asString());
+            assertEquals("Sara Gómez", reviews.get(0).get("cliente").get("nombre").asString());
+        }
+    }
+
     // Validación 400, actualización 200 y eliminación 204
     @Test
     @DisplayName("TC-I05: Validación 400, actualización 200 y eliminación 204 de reviews")
@@ -122,4 +183,75 @@ class ReviewRestControllerIntegrationTest {
         mockMvc.perform(get("/api/reviews/" + reviewId))
                 .andExpect(status().isNotFound());
     }
+
+    // Lote de reviews: clientes resueltos en bloque y una sola review por cliente
+    @Test
+    @DisplayName("TC-I16: POST /api/reviews/batch vincula clientes y rechaza el segundo para el mismo cliente")
+    void guardarLoteReviews_unaReviewPorCliente() throws Exception {
+        Cliente ana = clienteRepository.save(new Cliente("Ana Ruiz", 31, "Femenino", false, null));
+        Cliente luis = clienteRepository.save(new Cliente("Luis Gil", 45, "Masculino", false, null));
+        Review existente = reviewRepository.save(new Review("Correcta", 3, luis));
+
+        String lote = String.format("[" +
+                "{\"descripcion\": \"Excelente arroz\", \"valoracion\": 5, \"cliente\": {\"id\": %d}}," +
+                "{\"descripcion\": \"Otra de Ana\", \"valoracion\": 4, \"cliente\": {\"id\": %d}}," +
+                "{\"id\": %d, \"descripcion\": \"Mejor de lo esperado\", \"valoracion\": 4, \"cliente\": {\"id\": %d}}," +
+                "{\"descripcion\": \"Sin valoración\", \"valoracion\": 9}" +
+                "]", ana.getId(), ana.getId(), existente.getId(), luis.getId());
+
+        mockMvc.perform(post("/api/reviews/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(lote))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.correctos", is(2)))
+                .andExpect(jsonPath("$.fallidos", is(2)))
+                .andExpect(jsonPath("$.resultados[0].estado", is("CREADO")))
+                .andExpect(jsonPath("$.resultados[1].errores[0]",
+                        is("El cliente con ID " + ana.getId() + " ya tiene una review")))
+                .andExpect(jsonPath("$.resultados[2].estado", is("ACTUALIZADO")))
+                .andExpect(jsonPath("$.resultados[3].estado", is("ERROR")));
+
+        // El lote se escribe por JDBC: se vacía el contexto de persistencia del test para releer
+        entityManager.clear();
+        mockMvc.perform(get("/api/reviews/" + existente.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valoracion", is(4)))
+                .andExpect(jsonPath("$.cliente.id", is(luis.getId().intValue())));
+    }
+
+    // Segmento: reviews de 4 estrellas de clientes de 25-35 con intolerancia
+    @Test
+    @DisplayName("TC-I19: GET /api/reviews/segmento filtra por la franja de edad precalculada y valoración")
+    void listarSegmento_franjaIntoleranciaYValoracion() throws Exception {
+        Cliente marta = clienteRepository.save(new Cliente("Marta León", 24, "Femenino", true, "Gluten"));
+        Cliente pablo = clienteRepository.save(new Cliente("Pablo Ortiz", 30, "Masculino", true, "Lactosa"));
+        Cliente irene = clienteRepository.save(new Cliente("Irene Pardo", 33, "Femenino", false, null));
+        reviewRepository.save(new Review("Buen menú sin lactosa", 4, pablo));
+        reviewRepository.save(new Review("Correcto", 4, irene));
+
+        // La franja se recalcula al cambiar la edad: Marta pasa de 15-24 a 25-35
+        marta.setEdad(25);
+        reviewRepository.save(new Review("Adaptaron el plato", 4, marta));
+        entityManager.flush();
+        entityManager.clear();
+
+        mockMvc.perform(get("/api/reviews/segmento")
+                        .param("valoracion", "4")
+                        .param("franja", "25-35")
+                        .param("intolerancia", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].cliente.edadFranja", is("25-35")));
+
+        mockMvc.perform(get("/api/reviews/segmento/total")
+                        .param("valoracion", "4")
+                        .param("franja", "25-35")
+                        .param("intolerancia", "true"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("2"));
+
+        // Franja desconocida -> 400
+        mockMvc.perform(get("/api/reviews/segmento").param("franja", "20-30"))
+                .andExpect(status().isBadRequest());
+    }
 }
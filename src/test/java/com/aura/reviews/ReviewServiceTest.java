@@ -22,7 +22,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import com.aura.reviews.entity.Cliente;
 import com.aura.reviews.entity.Review;
 import com.aura.reviews.repository.ReviewRepository;
+import com.aura.reviews.service.EstadisticasCache;
+import com.aura.reviews.service.IndiceBusquedaReviews;
 import com.aura.reviews.service.ReviewService;
+import com.aura.reviews.service.TokenCambios;
 
 // Tests unitarios de ReviewService con Mockito (sin contexto Spring)
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +34,15 @@ class ReviewServiceTest {
     @Mock
     private ReviewRepository reviewRepository;
 
+    @Mock
+    private EstadisticasCache estadisticasCache;
+
+    @Mock
+    private IndiceBusquedaReviews indiceBusqueda;
+
+    @Mock
+    private TokenCambios tokenCambios;
+
     @InjectMocks
     private ReviewService reviewService;
 
@@ -86,10 +98,11 @@ class ReviewServiceTest {
         assertEquals("Pedro Ruiz", resultado.getCliente().getNombre());
         verify(reviewRepository).save(reviewNueva);
 
-        // Borrar y verificar
+        // Borrar y verificar: la valoración se descuenta de las estadísticas
         reviewService.borrar(1L);
 
         verify(reviewRepository).delete(reviewGuardada);
+        verify(estadisticasCache).actualizarReview(reviewGuardada.getValoracion(), null);
     }
 
     // buscarPorId con ID inexistente lanza excepción
@@ -0,0 +1,125 @@
+package com.aura.reviews;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.aura.reviews.entity.Cliente;
+import com.aura.reviews.entity.Review;
+import com.aura.reviews.service.ClienteService;
+import com.aura.reviews.service.DifusionEstadisticas;
+import com.aura.reviews.service.ReviewService;
+
+// Tests de integración del stream SSE del panel. Sin @Transactional: los contadores se
+// actualizan tras el commit y el envío lo hace el planificador en otro hilo
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StreamInformesIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private DifusionEstadisticas difusionEstadisticas;
+
+    // Al conectar llega el estado completo y después solo los cambios
+    @Test
+    @DisplayName("TC-I26: GET /informes/stream envía el estado al conectar y los cambios como delta")
+    void stream_altaDeClienteYReview_enviaDelta() throws Exception {
+        // Arrange
+        MvcResult resultado = mockMvc.perform(get("/informes/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        esperar(resultado, "event:estado");
+
+        // Act
+        Cliente cliente = clienteService.guardar(new Cliente("Ciro Lago", 40, "No binario", true, "Soja"));
+        Review review = reviewService.guardar(new Review("Todo correcto", 3, cliente));
+
+        // Assert
+        String contenido = esperar(resultado, "\"reviewsPorEstrellas\":{\"3\":1}");
+        assertTrue(contenido.contains("event:delta"));
+        assertTrue(contenido.contains("\"No binario\":1"), contenido);
+
+        reviewService.borrar(review.getId());
+        clienteService.borrar(cliente.getId());
+        resultado.getRequest().getAsyncContext().complete();
+    }
+
+    // Un panel cuya conexión no acepta datos no retrasa a los demás; al llenarse su cola se cierra
+    @Test
+    @DisplayName("TC-I37: un panel atascado no frena el stream de los demás y se descarta al quedarse atrás")
+    void stream_panelAtascado_noFrenaALosDemas() throws Exception {
+        // Arrange - el panel atascado se suscribe primero
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch descartado = new CountDownLatch(1);
+        difusionEstadisticas.suscribir(new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder evento) throws IOException {
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void complete() {
+                descartado.countDown();
+            }
+        });
+        MvcResult resultado = mockMvc.perform(get("/informes/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        esperar(resultado, "event:estado");
+
+        // Act - un alta y una difusión por vuelta, hasta que el panel atascado se queda atrás
+        List<Cliente> clientes = new ArrayList<>();
+        for (int i = 0; i < 50 && descartado.getCount() > 0; i++) {
+            clientes.add(clienteService.guardar(new Cliente("Panel " + i, 30, "Femenino", false, null)));
+            difusionEstadisticas.difundir();
+        }
+
+        // Assert
+        assertTrue(descartado.await(5, TimeUnit.SECONDS));
+        esperar(resultado, "event:delta");
+
+        liberar.countDown();
+        clientes.forEach(cliente -> clienteService.borrar(cliente.getId()));
+        resultado.getRequest().getAsyncContext().complete();
+    }
+
+    private static String esperar(MvcResult resultado, String texto) throws Exception {
+        for (int i = 0; i < 100; i++) {
+            String contenido = resultado.getResponse().getContentAsString();
+            if (contenido.contains(texto)) {
+                return contenido;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("No llegó " + texto + ": " + resultado.getResponse().getContentAsString());
+    }
+}